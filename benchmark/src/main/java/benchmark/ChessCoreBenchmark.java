@@ -0,0 +1,102 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move generation and game rules through the public ChessGame API
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessCoreBenchmark {
+
+    /**
+     * One position from each phase of the game
+     */
+    @State(Scope.Thread)
+    public static class Phase {
+        @Param({"opening", "middlegame", "endgame"})
+        public String phase;
+
+        private ChessGame game;
+        private List<ChessPosition> pieces;
+
+        @Setup
+        public void setup() {
+            String fen = switch (phase) {
+                case "opening" -> Positions.OPENING;
+                case "middlegame" -> Positions.MIDDLEGAME;
+                default -> Positions.ENDGAME;
+            };
+            game = Fen.load(fen);
+            pieces = Positions.movablePieces(fen);
+        }
+    }
+
+    /**
+     * Positions that don't depend on the game phase
+     */
+    @State(Scope.Thread)
+    public static class Fixed {
+        private ChessGame checkmate;
+        private ChessGame stalemate;
+        private List<ChessMove> operaGame;
+
+        @Setup
+        public void setup() {
+            checkmate = Fen.load(Positions.CHECKMATE);
+            stalemate = Fen.load(Positions.STALEMATE);
+            operaGame = Positions.parse(Positions.OPERA_GAME);
+        }
+    }
+
+    /**
+     * validMoves for every piece of the side to move, as the client and server ask for them
+     */
+    @Benchmark
+    public void validMoves(Phase phase, Blackhole blackhole) {
+        for (ChessPosition position : phase.pieces) {
+            blackhole.consume(phase.game.validMoves(position));
+        }
+    }
+
+    @Benchmark
+    public boolean isInCheck(Phase phase) {
+        return phase.game.isInCheck(phase.game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmate(Fixed fixed) {
+        return fixed.checkmate.isInCheckmate(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isInStalemate(Fixed fixed) {
+        return fixed.stalemate.isInStalemate(ChessGame.TeamColor.BLACK);
+    }
+
+    /**
+     * Plays a whole game with validated makeMove calls, checking for mate after
+     * each move like the server does
+     */
+    @Benchmark
+    public ChessGame playGame(Fixed fixed) throws InvalidMoveException {
+        ChessGame played = new ChessGame();
+        for (ChessMove move : fixed.operaGame) {
+            played.makeMove(move);
+            played.isInCheckmate(played.getTeamTurn());
+        }
+        return played;
+    }
+}
@@ -0,0 +1,78 @@
+package benchmark;
+
+import chess.ChessGame;
+import dataaccess.DataAccessException;
+import dataaccess.MemoryAuthDAO;
+import dataaccess.MemoryGameDAO;
+import dataaccess.MemoryUserDAO;
+import model.AuthData;
+import model.GameData;
+import model.UserData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups against the in-memory DAOs, at the sizes set by entries
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DaoBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int entries;
+
+    private MemoryAuthDAO authDAO;
+    private MemoryUserDAO userDAO;
+    private MemoryGameDAO gameDAO;
+    private String[] tokens;
+    private String[] usernames;
+    private int next;
+
+    @Setup
+    public void setup() throws DataAccessException {
+        authDAO = new MemoryAuthDAO();
+        userDAO = new MemoryUserDAO();
+        gameDAO = new MemoryGameDAO();
+        tokens = new String[entries];
+        usernames = new String[entries];
+        for (int i = 0; i < entries; i++) {
+            usernames[i] = "user" + i;
+            tokens[i] = UUID.randomUUID().toString();
+            userDAO.createUser(new UserData(usernames[i], "password", usernames[i] + "@mail.com"));
+            authDAO.createAuth(new AuthData(tokens[i], usernames[i]));
+            gameDAO.createGame(new GameData(i, usernames[i], null, "game" + i, new ChessGame()));
+        }
+    }
+
+    // cycles through every entry so lookups aren't always the first or last one
+    private int nextIndex() {
+        next = next + 1 == entries ? 0 : next + 1;
+        return next;
+    }
+
+    @Benchmark
+    public AuthData getAuth() {
+        return authDAO.getAuth(tokens[nextIndex()]);
+    }
+
+    @Benchmark
+    public UserData getUser() {
+        return userDAO.getUser(usernames[nextIndex()]);
+    }
+
+    @Benchmark
+    public GameData getGame() throws DataAccessException {
+        return gameDAO.getGame(nextIndex());
+    }
+
+    @Benchmark
+    public Object listGames() {
+        return gameDAO.listGames();
+    }
+}
@@ -0,0 +1,89 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.InvalidMoveException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed positions and games shared by the benchmarks
+ */
+final class Positions {
+
+    static final String OPENING = "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3";
+    static final String MIDDLEGAME = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    static final String CHECKMATE = "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3";
+    static final String STALEMATE = "7k/5Q2/6K1/8/8/8/8/8 b - - 0 1";
+
+    // Morphy vs. Duke Karl and Count Isouard, Paris 1858
+    static final String[] OPERA_GAME = {
+            "e2e4", "e7e5", "g1f3", "d7d6", "d2d4", "c8g4", "d4e5", "g4f3", "d1f3", "d6e5",
+            "f1c4", "g8f6", "f3b3", "d8e7", "b1c3", "c7c6", "c1g5", "b7b5", "c3b5", "c6b5",
+            "c4b5", "b8d7", "e1c1", "a8d8", "d1d7", "d8d7", "h1d1", "e7e6", "b5d7", "f6d7",
+            "b3b8", "d7b8", "d1d8"
+    };
+
+    private Positions() {}
+
+    /**
+     * @param moves moves in coordinate notation, e.g. e2e4 or e7e8q
+     * @return the moves as ChessMoves
+     */
+    static List<ChessMove> parse(String... moves) {
+        List<ChessMove> parsed = new ArrayList<>();
+        for (String move : moves) {
+            ChessPiece.PieceType promotion = move.length() < 5 ? null : switch (move.charAt(4)) {
+                case 'q' -> ChessPiece.PieceType.QUEEN;
+                case 'r' -> ChessPiece.PieceType.ROOK;
+                case 'b' -> ChessPiece.PieceType.BISHOP;
+                default -> ChessPiece.PieceType.KNIGHT;
+            };
+            parsed.add(new ChessMove(position(move, 0), position(move, 2), promotion));
+        }
+        return parsed;
+    }
+
+    /**
+     * @return a game played through the given number of moves of the Opera game
+     */
+    static ChessGame operaGame(int plies) {
+        ChessGame game = new ChessGame();
+        try {
+            for (ChessMove move : parse(OPERA_GAME).subList(0, plies)) {
+                game.makeMove(move);
+            }
+        }
+        catch (InvalidMoveException e) {
+            throw new IllegalStateException(e);
+        }
+        return game;
+    }
+
+    /**
+     * @return every position holding a piece of the side to move
+     */
+    static List<ChessPosition> movablePieces(String fen) {
+        ChessGame game = Fen.load(fen);
+        List<ChessPosition> positions = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = new ChessPosition(row, col);
+                ChessPiece piece = game.getBoard().getPiece(position);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    positions.add(position);
+                }
+            }
+        }
+        return positions;
+    }
+
+    private static ChessPosition position(String move, int index) {
+        return new ChessPosition(move.charAt(index + 1) - '0', move.charAt(index) - 'a' + 1);
+    }
+}
@@ -0,0 +1,66 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.ChessJson;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson round trips of a ChessGame: reflective, as SqlGameDAO stored games before,
+ * and compact through the ChessJson adapters
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    @Param({"0", "16", "33"})
+    public int plies;
+
+    private final Gson gson = new Gson();
+    private ChessGame game;
+    private String json;
+    private String compactJson;
+
+    @Setup
+    public void setup() {
+        game = Positions.operaGame(plies);
+        json = gson.toJson(game);
+        compactJson = ChessJson.GSON.toJson(game);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return gson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame fromJson() {
+        return gson.fromJson(json, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame roundTrip() {
+        return gson.fromJson(gson.toJson(game), ChessGame.class);
+    }
+
+    @Benchmark
+    public String compactToJson() {
+        return ChessJson.GSON.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame compactFromJson() {
+        return ChessJson.GSON.fromJson(compactJson, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame compactRoundTrip() {
+        return ChessJson.GSON.fromJson(ChessJson.GSON.toJson(game), ChessGame.class);
+    }
+}
@@ -0,0 +1,178 @@
+package benchmark;
+
+import dataaccess.DataAccessException;
+import dataaccess.DatabaseManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single row lookups against MySQL as the tables grow, with and without the keys
+ * and indexes the schema now has. Needs the MySQL server from db.properties, but
+ * works in a schema of its own, chess_bench, so the application's data is never
+ * touched. Left out of the default benchmark run; run it with
+ * {@code mvn -P benchmark,benchmark-sql -pl benchmark -am verify -DskipTests}.
+ * <p>
+ * Each size loads its own bench_* tables, copied from the real ones with
+ * {@code CREATE TABLE ... LIKE} when keyed, or with the original unkeyed columns
+ * when not. Loaded tables are kept between runs, so only the first run at a size
+ * pays for the insert; drop the bench_* tables to start over.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Ddb.name=" + SqlLookupBenchmark.SCHEMA)
+@State(Scope.Thread)
+public class SqlLookupBenchmark {
+
+    static final String SCHEMA = "chess_bench";
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean keyed;
+
+    private static final int INSERT_CHUNK = 1000;
+
+    private Connection conn;
+    private String auth;
+    private String user;
+    private String game;
+
+    @Setup
+    public void setup() throws DataAccessException, SQLException {
+        DatabaseManager.createDatabase();
+        conn = DatabaseManager.connectionPool().borrow();
+        String suffix = "_" + rows + (keyed ? "_keyed" : "_plain");
+        auth = "bench_auth" + suffix;
+        user = "bench_user" + suffix;
+        game = "bench_game" + suffix;
+
+        if (keyed) {
+            createLike(auth, "auth");
+            createLike(user, "user");
+            createLike(game, "game");
+        }
+        else {
+            execute("CREATE TABLE IF NOT EXISTS " + auth + " (authToken CHAR(36) NOT NULL, username VARCHAR(255) NOT NULL)");
+            execute("CREATE TABLE IF NOT EXISTS " + user + " (username VARCHAR(255) NOT NULL, password VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL)");
+            execute("CREATE TABLE IF NOT EXISTS " + game + " (gameID INT AUTO_INCREMENT PRIMARY KEY, whiteUsername VARCHAR(255), blackUsername VARCHAR(255), gameName VARCHAR(255) NOT NULL, chessGame TEXT)");
+        }
+        fill(auth, "(authToken, username) VALUES ", "(?, ?)", (pdStmt, at, i) -> {
+            pdStmt.setString(at, token(i));
+            pdStmt.setString(at + 1, username(i));
+        });
+        fill(user, "(username, password, email) VALUES ", "(?, ?, ?)", (pdStmt, at, i) -> {
+            pdStmt.setString(at, username(i));
+            pdStmt.setString(at + 1, "password");
+            pdStmt.setString(at + 2, username(i) + "@mail.com");
+        });
+        fill(game, "(whiteUsername, blackUsername, gameName) VALUES ", "(?, ?, ?)", (pdStmt, at, i) -> {
+            pdStmt.setString(at, username(i));
+            pdStmt.setString(at + 1, username(i + 1));
+            pdStmt.setString(at + 2, "game" + i);
+        });
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Benchmark
+    public String getAuth() throws SQLException {
+        return lookup("SELECT username FROM " + auth + " WHERE authToken = ?", token(randomRow()));
+    }
+
+    @Benchmark
+    public String getUser() throws SQLException {
+        return lookup("SELECT email FROM " + user + " WHERE username = ?", username(randomRow()));
+    }
+
+    @Benchmark
+    public String gamesForPlayer() throws SQLException {
+        String player = username(randomRow());
+        try (var pdStmt = conn.prepareStatement("SELECT gameName FROM " + game + " WHERE whiteUsername = ? UNION ALL SELECT gameName FROM " + game + " WHERE blackUsername = ?")) {
+            pdStmt.setString(1, player);
+            pdStmt.setString(2, player);
+            try (var resultSet = pdStmt.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+
+    private String lookup(String query, String key) throws SQLException {
+        try (var pdStmt = conn.prepareStatement(query)) {
+            pdStmt.setString(1, key);
+            try (var resultSet = pdStmt.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+
+    private int randomRow() {
+        return ThreadLocalRandom.current().nextInt(rows);
+    }
+
+    // the same row numbers give the same keys on every run, so loaded tables can be reused
+    private static String token(int i) {
+        return UUID.nameUUIDFromBytes(("token" + i).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private static String username(int i) {
+        return "user" + i;
+    }
+
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement pdStmt, int at, int i) throws SQLException;
+    }
+
+    /**
+     * Helper function. Inserts rows numbered 0 to rows - 1 unless the table already
+     * has them, using multi-row inserts so loading a million rows takes seconds
+     */
+    private void fill(String table, String insert, String placeholders, RowBinder binder) throws SQLException {
+        try (var countPdStmt = conn.prepareStatement("SELECT COUNT(*) FROM " + table);
+             var resultSet = countPdStmt.executeQuery()) {
+            resultSet.next();
+            if (resultSet.getInt(1) == rows) {
+                return;
+            }
+        }
+        execute("TRUNCATE TABLE " + table);
+        int columns = placeholders.split(",").length;
+        conn.setAutoCommit(false);
+        for (int start = 0; start < rows; start += INSERT_CHUNK) {
+            int count = Math.min(INSERT_CHUNK, rows - start);
+            String sql = "INSERT INTO " + table + " " + insert + String.join(", ", Collections.nCopies(count, placeholders));
+            try (var pdStmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < count; i++) {
+                    binder.bind(pdStmt, i * columns + 1, start + i);
+                }
+                pdStmt.executeUpdate();
+            }
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+
+    private void createLike(String table, String template) throws SQLException {
+        execute("CREATE TABLE IF NOT EXISTS " + table + " LIKE " + template);
+    }
+
+    private void execute(String statement) throws SQLException {
+        try (var pdStmt = conn.prepareStatement(statement)) {
+            pdStmt.executeUpdate();
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package server;
 
-import com.google.gson.Gson;
+import chess.ChessJson;
 import model.AuthData;
 import model.GameData;
+import model.GameSummary;
 import model.UserData;
 import model.Games;
 import java.io.*;
@@ -50,17 +51,29 @@ public class ServerFacade {
     }
 
     /**
-     * Lists all games in the db
+     * Lists all games in the db, without their boards
      *
      * @param authToken UserData containing the user's credentials
-     * @return list of all the games
+     * @return list of all the game summaries
      */
-    public ArrayList<GameData> listGames(String authToken) throws BadFacadeRequestException {
+    public ArrayList<GameSummary> listGames(String authToken) throws BadFacadeRequestException {
         var path = "/game";
         var response = this.makeRequest("GET", path, authToken, null, Games.class);
         return response.getGames();
     }
 
+    /**
+     * Gets one full game, board included
+     *
+     * @param authToken UserData containing the user's credentials
+     * @param gameID ID of the game to get
+     * @return GameData for the game
+     */
+    public GameData getGame(String authToken, int gameID) throws BadFacadeRequestException {
+        var path = "/game/" + gameID;
+        return this.makeRequest("GET", path, authToken, null, GameData.class);
+    }
+
     /**
      * Creates a new game
      *
@@ -117,7 +130,7 @@ public class ServerFacade {
     private static void writeBody(Object request, HttpURLConnection http) throws IOException {
         if (request != null) {
             http.addRequestProperty("Content-Type", "application/json");
-            String reqData = new Gson().toJson(request);
+            String reqData = ChessJson.GSON.toJson(request);
             try (OutputStream reqBody = http.getOutputStream()) {
                 reqBody.write(reqData.getBytes());
             }
@@ -138,7 +151,7 @@ public class ServerFacade {
         try (InputStream respBody = http.getInputStream()) {
             InputStreamReader reader = new InputStreamReader(respBody);
             if (responseClass != null) {
-                response = new Gson().fromJson(reader, responseClass);
+                response = ChessJson.GSON.fromJson(reader, responseClass);
             }
         }
         return response;
@@ -6,6 +6,7 @@ import chess.ChessPiece;
 import chess.ChessPosition;
 import model.AuthData;
 import model.GameData;
+import model.GameSummary;
 import model.UserData;
 import server.BadFacadeRequestException;
 import server.BadInputException;
@@ -21,7 +22,7 @@ public class ChessClient {
     private boolean isSignedIn = false;
     private AuthData currAuth;
     private UserData currUser;
-    private ArrayList<GameData> gamesList;
+    private ArrayList<GameSummary> gamesList;
 
     public ChessClient(String serverUrl) {
         server = new ServerFacade(serverUrl);
@@ -185,12 +186,13 @@ public class ChessClient {
             return EscapeSequences.SET_TEXT_COLOR_YELLOW + "There are no games. Use 'create' to start one!";
         }
         int counter = 0;
-        for (GameData game : gamesList) {
+        for (GameSummary game : gamesList) {
             counter++;
             System.out.println(counter + ".");
             System.out.println("    Game Name: " + game.gameName());
             System.out.println("    Player White: " + game.whiteUsername());
             System.out.println("    Player Black: " + game.blackUsername());
+            System.out.println("    Status: " + game.status() + ", " + game.moveCount() + " moves");
         }
         return EscapeSequences.SET_TEXT_COLOR_YELLOW + "Use the game number to join or observe a game!";
     }
@@ -218,7 +220,7 @@ public class ChessClient {
                 if (Objects.equals(params[1], "white")) {
                     server.joinGame(currAuth.authToken(), new GameData(gameID, "WHITE", null, null, null));
 
-                    printWhiteView(gamesList.get(gameNum - 1).game().getBoard());
+                    printWhiteView(server.getGame(currAuth.authToken(), gameID).game().getBoard());
 
                     return EscapeSequences.SET_TEXT_COLOR_YELLOW + "You joined as the " +
                             EscapeSequences.SET_TEXT_COLOR_WHITE + EscapeSequences.SET_BG_COLOR_LIGHT_GREY + params[1] +
@@ -228,7 +230,7 @@ public class ChessClient {
                 else if (Objects.equals(params[1], "black")) {
                     server.joinGame(currAuth.authToken(), new GameData(gameID, null, "BLACK", null, null));
 
-                    printBlackView(gamesList.get(Integer.parseInt(params[0]) - 1).game().getBoard());
+                    printBlackView(server.getGame(currAuth.authToken(), gameID).game().getBoard());
 
                     return EscapeSequences.SET_TEXT_COLOR_YELLOW + "You joined as the " +
                             EscapeSequences.SET_TEXT_COLOR_BLACK + EscapeSequences.SET_BG_COLOR_LIGHT_GREY + params[1] +
@@ -253,7 +255,8 @@ public class ChessClient {
         gamesList = server.listGames(currAuth.authToken());
 
         if (params.length == 1) {
-            printBoards(gamesList.get(Integer.parseInt(params[0]) - 1).game());
+            int gameID = gamesList.get(Integer.parseInt(params[0]) - 1).gameID();
+            printBoards(server.getGame(currAuth.authToken(), gameID).game());
             return "Observing Game " + params[0] + "\n";
         }
         throw new BadInputException(400, "Expected: observe <gameID>");
@@ -174,10 +174,34 @@ public class ServerFacadeTests {
         Assertions.assertThrows(BadFacadeRequestException.class, gameFull);
     }
 
+    //----------------GetGame positive & negative tests--------------
+    @Test
+    @DisplayName("GetGame Works")
+    @Order(13)
+    public void validGet() throws BadFacadeRequestException {
+        var auth = facade.register(user1);
+        GameData created = facade.createGame(auth.authToken(), new GameData(0, null, null, "game1", new ChessGame()));
+        var game = facade.getGame(auth.authToken(), created.gameID());
+
+        Assertions.assertEquals("game1", game.gameName());
+        Assertions.assertEquals(new ChessGame().getBoard(), game.game().getBoard());
+        Assertions.assertEquals(0, facade.listGames(auth.authToken()).getFirst().moveCount());
+    }
+
+    @Test
+    @DisplayName("GetGame Missing Game")
+    @Order(14)
+    public void invalidGet() throws BadFacadeRequestException {
+        var auth = facade.register(user1);
+        Executable noGame = () -> facade.getGame(auth.authToken(), 1);
+
+        Assertions.assertThrows(BadFacadeRequestException.class, noGame);
+    }
+
     //----------------Clear test--------------
     @Test
     @DisplayName("Clear Works")
-    @Order(13)
+    @Order(15)
     public void clearDb() throws BadFacadeRequestException {
         var auth = facade.register(user1);
         facade.createGame(auth.authToken(), new GameData(1, null, null, "game1", new ChessGame()));
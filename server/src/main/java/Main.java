@@ -5,6 +5,7 @@ public class Main {
     public static void main(String[] args) {
         var piece = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
         System.out.println("♕ 240 Chess Server: " + piece);
+        System.out.printf("Move tables initialized in %.1f ms%n", Attacks.initNanos() / 1_000_000.0);
         var server = new Server();
         server.run(8080);
     }
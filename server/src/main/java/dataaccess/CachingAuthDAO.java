@@ -0,0 +1,214 @@
+package dataaccess;
+
+import model.AuthData;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache in front of another AuthDAO, so authenticating a request
+ * usually costs no I/O. Tokens found are kept for a fixed time to live. Once the
+ * cache is full, the least recently used of a small sample of entries is dropped,
+ * which approximates LRU without ordering the whole cache, so lookups take no lock.
+ * <p>
+ * deleteAuth and clear go through this cache and invalidate it immediately. A token
+ * deleted directly in the underlying store, e.g. by another server, stays valid here
+ * for at most the time to live. Lookups that miss aren't cached.
+ */
+public class CachingAuthDAO implements AuthDAO {
+
+    public static final long DEFAULT_TTL_MILLIS = 60_000;
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    /**
+     * A snapshot of the cache's counters
+     */
+    public record Stats(long hits, long misses, long evictions, long expirations, int size) {
+        /**
+         * @return the fraction of lookups answered from the cache
+         */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    // entries looked at to choose one to evict
+    private static final int EVICTION_SAMPLE = 8;
+
+    private static final class Entry {
+        private final AuthData authData;
+        private final long expiresAt;
+        // a plain write on each hit; eviction only needs a rough order
+        private volatile long lastUsed;
+
+        private Entry(AuthData authData, long expiresAt, long lastUsed) {
+            this.authData = authData;
+            this.expiresAt = expiresAt;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private final AuthDAO delegate;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final int maxEntries;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    // bumped on every invalidation, so a lookup racing a delete doesn't cache what it read
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public CachingAuthDAO(AuthDAO delegate) {
+        this(delegate, DEFAULT_TTL_MILLIS, DEFAULT_MAX_ENTRIES);
+    }
+
+    public CachingAuthDAO(AuthDAO delegate, long ttlMillis, int maxEntries) {
+        this(delegate, ttlMillis, maxEntries, System::nanoTime);
+    }
+
+    CachingAuthDAO(AuthDAO delegate, long ttlMillis, int maxEntries, LongSupplier clock) {
+        this.delegate = delegate;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.clock = clock;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public boolean createAuth(AuthData authData) throws DataAccessException {
+        long before = epoch.get();
+        boolean created = delegate.createAuth(authData);
+        if (created) {
+            // a new session is usually used right away
+            put(authData, before);
+        }
+        return created;
+    }
+
+    @Override
+    public AuthData getAuth(String authToken) throws DataAccessException {
+        if (authToken == null) {
+            return delegate.getAuth(null);
+        }
+        long now = clock.getAsLong();
+        Entry entry = cache.get(authToken);
+        if (entry != null) {
+            if (now - entry.expiresAt < 0) {
+                entry.lastUsed = now;
+                hits.increment();
+                return entry.authData;
+            }
+            if (cache.remove(authToken, entry)) {
+                expirations.increment();
+            }
+        }
+        misses.increment();
+
+        long before = epoch.get();
+        AuthData authData = delegate.getAuth(authToken);
+        if (authData != null) {
+            put(authData, before);
+        }
+        return authData;
+    }
+
+    @Override
+    public void deleteAuth(String authToken) throws DataAccessException {
+        invalidate(authToken);
+        try {
+            delegate.deleteAuth(authToken);
+        }
+        finally {
+            // again, in case a lookup cached the token while it was being deleted
+            invalidate(authToken);
+        }
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        try {
+            delegate.clear();
+        }
+        finally {
+            epoch.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return the cache's hit, miss and eviction counts and current size
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), cache.size());
+    }
+
+    /**
+     * Helper function. Caches a token unless the cache was invalidated
+     * since the caller started reading it
+     *
+     * @param authData the token to cache
+     * @param readEpoch the epoch from before the underlying store was read
+     */
+    private void put(AuthData authData, long readEpoch) {
+        if (epoch.get() != readEpoch) {
+            return;
+        }
+        long now = clock.getAsLong();
+        Entry entry = new Entry(authData, now + ttlNanos, now);
+        cache.put(authData.authToken(), entry);
+        // invalidations bump the epoch before removing, so either this sees the bump
+        // or the invalidation removes the entry just put
+        if (epoch.get() != readEpoch) {
+            cache.remove(authData.authToken(), entry);
+            return;
+        }
+        if (cache.size() > maxEntries) {
+            evict(now);
+        }
+    }
+
+    /**
+     * Helper function. Shrinks the cache back to its bound, each time removing an
+     * expired entry, or else the least recently used, from a sample of entries
+     */
+    private void evict(long now) {
+        while (cache.size() > maxEntries) {
+            Map.Entry<String, Entry> victim = null;
+            Iterator<Map.Entry<String, Entry>> entries = cache.entrySet().iterator();
+            for (int i = 0; i < EVICTION_SAMPLE && entries.hasNext(); i++) {
+                Map.Entry<String, Entry> candidate = entries.next();
+                if (now - candidate.getValue().expiresAt >= 0) {
+                    victim = candidate;
+                    break;
+                }
+                if (victim == null || candidate.getValue().lastUsed - victim.getValue().lastUsed < 0) {
+                    victim = candidate;
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            if (cache.remove(victim.getKey(), victim.getValue())) {
+                if (now - victim.getValue().expiresAt >= 0) {
+                    expirations.increment();
+                }
+                else {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    private void invalidate(String authToken) {
+        epoch.incrementAndGet();
+        cache.remove(authToken);
+    }
+}
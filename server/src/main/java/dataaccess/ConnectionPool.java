@@ -0,0 +1,397 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded pool of JDBC connections, so DAO calls reuse open connections
+ * instead of connecting and authenticating to MySQL every time.
+ * <p>
+ * Connections handed out by {@link #borrow()} are wrappers: closing one resets it
+ * and returns the real connection to the pool, closing any statements left open
+ * on it. Borrowers wait when all {@code maxSize} connections are in use. A
+ * background task closes connections idle longer than the idle timeout, keeping at
+ * least {@code minSize}, and opens new ones to get back up to {@code minSize}.
+ * Connections idle for more than {@link #VALIDATION_BYPASS_MILLIS} are checked with
+ * {@link Connection#isValid} before they are handed out.
+ */
+public final class ConnectionPool {
+
+    /** Connections returned more recently than this are handed out without validation */
+    public static final long VALIDATION_BYPASS_MILLIS = 500;
+
+    /**
+     * Opens a new physical connection
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    /**
+     * A snapshot of the pool's size and counters. Wait times cover every borrow,
+     * including ones that didn't have to wait.
+     */
+    public record Stats(int active, int idle, long borrows, long timeouts, long created, long evicted,
+                        long validationFailures, double meanWaitMillis, double maxWaitMillis) {}
+
+    private record IdleConnection(Connection connection, long returnedAt) {}
+
+    private final ConnectionFactory factory;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    private final long borrowTimeoutNanos;
+    private final int validationTimeoutSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    // most recently returned first, so the pool shrinks from the other end
+    private final ArrayDeque<IdleConnection> idle = new ArrayDeque<>();
+    private int total;
+    private boolean shutDown;
+    private final ScheduledExecutorService maintenance;
+
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * @param factory opens the physical connections
+     * @param minSize the number of connections kept open when idle
+     * @param maxSize the most connections open at once
+     * @param idleTimeoutMillis how long a connection above minSize may sit idle before it is closed
+     * @param borrowTimeoutMillis how long {@link #borrow()} waits for a connection before failing
+     * @param validationTimeoutSeconds how long validating a connection may take
+     */
+    public ConnectionPool(ConnectionFactory factory, int minSize, int maxSize, long idleTimeoutMillis,
+                          long borrowTimeoutMillis, int validationTimeoutSeconds) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Bad pool size: min " + minSize + ", max " + maxSize);
+        }
+        this.factory = factory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.borrowTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+
+        maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, Math.min(idleTimeoutMillis / 2, 30_000));
+        maintenance.scheduleWithFixedDelay(this::maintain, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets a connection, waiting for one to be returned if the pool is at its maximum size.
+     * Close it when done to return it to the pool.
+     *
+     * @return a connection wrapper
+     * @throws SQLTimeoutException if no connection became available within the borrow timeout
+     * @throws SQLException if the pool is shut down or a new connection couldn't be opened
+     */
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + borrowTimeoutNanos;
+        while (true) {
+            IdleConnection candidate = null;
+            lock.lock();
+            try {
+                while (candidate == null) {
+                    if (shutDown) {throw new SQLException("Connection pool is shut down");}
+                    candidate = idle.pollFirst();
+                    if (candidate == null && total < maxSize) {
+                        total++;
+                        break;
+                    }
+                    if (candidate == null) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            timeouts.increment();
+                            throw new SQLTimeoutException("Timed out waiting for a database connection");
+                        }
+                        available.awaitNanos(remaining);
+                    }
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted waiting for a database connection", e);
+            }
+            finally {
+                lock.unlock();
+            }
+
+            Connection connection;
+            if (candidate == null) {
+                // a slot was reserved above; give it back if connecting fails
+                try {
+                    connection = factory.create();
+                    created.increment();
+                }
+                catch (SQLException | RuntimeException e) {
+                    discard(null);
+                    throw e;
+                }
+            }
+            else {
+                connection = candidate.connection();
+                if (System.nanoTime() - candidate.returnedAt() > TimeUnit.MILLISECONDS.toNanos(VALIDATION_BYPASS_MILLIS) &&
+                        !isValid(connection)) {
+                    validationFailures.increment();
+                    discard(connection);
+                    continue;
+                }
+            }
+
+            long waited = System.nanoTime() - start;
+            borrows.increment();
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            return wrap(connection);
+        }
+    }
+
+    /**
+     * Closes every idle connection and stops the maintenance task. Connections still
+     * borrowed are closed when they are returned, and later borrows fail.
+     */
+    public void shutdown() {
+        List<Connection> toClose = new ArrayList<>();
+        lock.lock();
+        try {
+            shutDown = true;
+            for (IdleConnection connection : idle) {
+                toClose.add(connection.connection());
+            }
+            total -= idle.size();
+            idle.clear();
+            available.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+        maintenance.shutdownNow();
+        toClose.forEach(ConnectionPool::closeQuietly);
+    }
+
+    /**
+     * @return the pool's current size and counters
+     */
+    public Stats stats() {
+        int idleCount;
+        int active;
+        lock.lock();
+        try {
+            idleCount = idle.size();
+            active = total - idleCount;
+        }
+        finally {
+            lock.unlock();
+        }
+        long count = borrows.sum();
+        return new Stats(active, idleCount, count, timeouts.sum(), created.sum(), evicted.sum(),
+                validationFailures.sum(), count == 0 ? 0 : totalWaitNanos.sum() / 1e6 / count, maxWaitNanos.get() / 1e6);
+    }
+
+    /**
+     * Helper function. Returns a borrowed connection to the pool, or closes it
+     * if it couldn't be reset or the pool is shut down
+     *
+     * @param connection the physical connection
+     */
+    private void release(Connection connection) {
+        boolean reusable;
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            reusable = !connection.isClosed();
+        }
+        catch (SQLException e) {
+            reusable = false;
+        }
+
+        lock.lock();
+        try {
+            if (reusable && !shutDown) {
+                idle.addFirst(new IdleConnection(connection, System.nanoTime()));
+                available.signal();
+                return;
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+        discard(connection);
+    }
+
+    /**
+     * Helper function. Closes a connection and frees its slot
+     *
+     * @param connection the physical connection, or null if it was never opened
+     */
+    private void discard(Connection connection) {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        }
+        finally {
+            lock.unlock();
+        }
+        if (connection != null) {
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Helper function. Closes connections idle past the timeout while the pool is
+     * above its minimum size, then opens connections up to the minimum size
+     */
+    private void maintain() {
+        List<Connection> expired = new ArrayList<>();
+        int missing;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            Iterator<IdleConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && total > minSize) {
+                IdleConnection connection = oldestFirst.next();
+                if (now - connection.returnedAt() < idleTimeoutNanos) {
+                    break;
+                }
+                oldestFirst.remove();
+                total--;
+                expired.add(connection.connection());
+            }
+            missing = shutDown ? 0 : minSize - total;
+            total += Math.max(0, missing);
+        }
+        finally {
+            lock.unlock();
+        }
+        evicted.add(expired.size());
+        expired.forEach(ConnectionPool::closeQuietly);
+
+        for (int i = 0; i < missing; i++) {
+            try {
+                Connection connection = factory.create();
+                created.increment();
+                release(connection);
+            }
+            catch (SQLException | RuntimeException e) {
+                // the database may be down; borrowers will see the error, so just retry next time
+                discard(null);
+            }
+        }
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(validationTimeoutSeconds);
+        }
+        catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        }
+        catch (Exception e) {
+            // already unusable
+        }
+    }
+
+    /**
+     * Helper function. Wraps a physical connection so closing it returns it to the pool
+     *
+     * @param connection the physical connection
+     * @return the wrapper handed to the borrower
+     */
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new PooledConnection(connection));
+    }
+
+    /**
+     * Forwards calls to the physical connection until the wrapper is closed,
+     * tracking statements so they can be closed when it is
+     */
+    private final class PooledConnection implements InvocationHandler {
+        private final Connection connection;
+        private final List<Statement> statements = new ArrayList<>();
+        private boolean closed;
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        statements.forEach(ConnectionPool::closeQuietly);
+                        statements.clear();
+                        release(connection);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || connection.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled " + connection;
+                }
+                default -> {
+                    if (closed) {throw new SQLException("Connection is closed");}
+                }
+            }
+            try {
+                Object result = method.invoke(connection, args);
+                if (result instanceof Statement statement) {
+                    statements.add(statement);
+                }
+                return result;
+            }
+            catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -8,6 +8,15 @@ public class DatabaseManager {
     private static final String USER;
     private static final String PASSWORD;
     private static final String CONNECTION_URL;
+    private static final String GAME_STORAGE;
+    private static final int POOL_MIN_SIZE;
+    private static final int POOL_MAX_SIZE;
+    private static final long POOL_IDLE_TIMEOUT_MILLIS;
+    private static final long POOL_BORROW_TIMEOUT_MILLIS;
+    private static final int POOL_VALIDATION_TIMEOUT_SECONDS;
+
+    private static ConnectionPool pool;
+    private static volatile boolean schemaReady;
 
     /*
      * Load the database information for the db.properties file.
@@ -20,9 +29,16 @@ public class DatabaseManager {
                 }
                 Properties props = new Properties();
                 props.load(propStream);
-                DATABASE_NAME = props.getProperty("db.name");
+                // a db.name system property wins, so tools such as the benchmarks can use a schema of their own
+                DATABASE_NAME = System.getProperty("db.name", props.getProperty("db.name"));
                 USER = props.getProperty("db.user");
                 PASSWORD = props.getProperty("db.password");
+                GAME_STORAGE = props.getProperty("db.gameStorage", "binary");
+                POOL_MIN_SIZE = Integer.parseInt(props.getProperty("db.pool.minSize", "2"));
+                POOL_MAX_SIZE = Integer.parseInt(props.getProperty("db.pool.maxSize", "10"));
+                POOL_IDLE_TIMEOUT_MILLIS = Long.parseLong(props.getProperty("db.pool.idleTimeoutMillis", "300000"));
+                POOL_BORROW_TIMEOUT_MILLIS = Long.parseLong(props.getProperty("db.pool.borrowTimeoutMillis", "5000"));
+                POOL_VALIDATION_TIMEOUT_SECONDS = Integer.parseInt(props.getProperty("db.pool.validationTimeoutSeconds", "2"));
 
                 var host = props.getProperty("db.host");
                 var port = Integer.parseInt(props.getProperty("db.port"));
@@ -34,58 +50,39 @@ public class DatabaseManager {
     }
 
     /**
-     * Creates the database if it does not already exist.
+     * Creates the database if it does not already exist and brings its schema up to
+     * the latest version (see {@link SchemaMigrations}). The server calls this once at
+     * startup; getConnection calls it on first use if the server hasn't.
      */
-    static void createDatabase() throws DataAccessException {
+    public static synchronized void createDatabase() throws DataAccessException {
         try {
-            var statement = "CREATE DATABASE IF NOT EXISTS " + DATABASE_NAME;
-            var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
-            try (var preparedStatement = conn.prepareStatement(statement)) {
+            try (var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
+                 var preparedStatement = conn.prepareStatement("CREATE DATABASE IF NOT EXISTS " + DATABASE_NAME)) {
                 preparedStatement.executeUpdate();
             }
-            //added code to create Auth, User, and Game Tables
-            conn.setCatalog(DATABASE_NAME);
-            statement = """
-                CREATE TABLE IF NOT EXISTS auth (
-                authToken CHAR(36) NOT NULL,
-                username VARCHAR(255) NOT NULL
-                )""";
-            try (var authPdStmt = conn.prepareStatement(statement)) {
-                authPdStmt.executeUpdate();
-            }
-
-            statement = """
-                CREATE TABLE IF NOT EXISTS user (
-                username VARCHAR(255) NOT NULL,
-                password VARCHAR(255) NOT NULL,
-                email VARCHAR(255) NOT NULL
-                )""";
-            try (var userPdStmt = conn.prepareStatement(statement)) {
-                userPdStmt.executeUpdate();
-            }
-
-            statement = """
-                CREATE TABLE IF NOT EXISTS game (
-                gameID INT AUTO_INCREMENT PRIMARY KEY,
-                whiteUsername VARCHAR(255),
-                blackUsername VARCHAR(255),
-                gameName VARCHAR(255) NOT NULL,
-                chessGame TEXT NOT NULL
-                )""";
-            try (var gamePdStmt = conn.prepareStatement(statement)) {
-                gamePdStmt.executeUpdate();
+            try (var conn = connectionPool().borrow()) {
+                SchemaMigrations.migrate(conn);
             }
-
+            schemaReady = true;
         } catch (SQLException e) {
             throw new DataAccessException(e.getMessage());
         }
     }
 
     /**
-     * Create a connection to the database and sets the catalog based upon the
-     * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
-     * The easiest way to do that is with a try-with-resource block.
+     * Gets how game state is stored, from the optional db.gameStorage property:
+     * "binary" (the default) or "json"
+     */
+    static String gameStorage() {
+        return GAME_STORAGE;
+    }
+
+    /**
+     * Borrows a connection to the database from the connection pool, with the catalog
+     * set based upon the properties specified in db.properties. The pool's size and
+     * timeouts come from the optional db.pool.* properties. Connections to the database
+     * should be short-lived, and you must close the connection when you are done with it
+     * to return it to the pool. The easiest way to do that is with a try-with-resource block.
      * <br/>
      * <code>
      * try (var conn = DbInfo.getConnection(databaseName)) {
@@ -94,12 +91,38 @@ public class DatabaseManager {
      * </code>
      */
     static Connection getConnection() throws DataAccessException {
+        if (!schemaReady) {
+            createDatabase();
+        }
         try {
-            var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
-            conn.setCatalog(DATABASE_NAME);
-            return conn;
+            return connectionPool().borrow();
         } catch (SQLException e) {
             throw new DataAccessException(e.getMessage());
         }
     }
+
+    /**
+     * Gets the connection pool, creating it if it isn't running
+     */
+    public static synchronized ConnectionPool connectionPool() {
+        if (pool == null) {
+            pool = new ConnectionPool(() -> {
+                var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
+                conn.setCatalog(DATABASE_NAME);
+                return conn;
+            }, POOL_MIN_SIZE, POOL_MAX_SIZE, POOL_IDLE_TIMEOUT_MILLIS, POOL_BORROW_TIMEOUT_MILLIS,
+                    POOL_VALIDATION_TIMEOUT_SECONDS);
+        }
+        return pool;
+    }
+
+    /**
+     * Closes the pooled connections. A later getConnection starts a new pool.
+     */
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
 }
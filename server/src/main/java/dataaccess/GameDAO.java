@@ -1,7 +1,11 @@
 package dataaccess;
 
+import chess.ChessGame;
+import chess.ChessMove;
 import java.util.ArrayList;
+import java.util.List;
 import model.GameData;
+import model.GameSummary;
 
 public interface GameDAO {
     /**
@@ -12,11 +16,21 @@ public interface GameDAO {
      */
     boolean createGame(GameData gameData) throws DataAccessException;
 
+    /**
+     * Create a new chess game in the db under a newly allocated game ID.
+     * Concurrent calls always get different IDs, and IDs start at 1.
+     *
+     * @param gameData GameData object containing the new game; its gameID is ignored
+     * @return GameData with the ID the game was stored under
+     */
+    GameData createGameWithNewID(GameData gameData) throws DataAccessException;
+
     /**
      * Find a game in the db
      *
      * @param gameID int ID of the game to search for
-     * @return GameData object or null if not found
+     * @return GameData object
+     * @throws DataAccessException "Error: Invalid game ID." if there is no such game
      */
     GameData getGame(int gameID) throws DataAccessException;
 
@@ -28,13 +42,62 @@ public interface GameDAO {
     ArrayList<GameData> listGames() throws DataAccessException;
 
     /**
-     * Adds given player to a game or makes a move for that player
+     * Get a summary of every game in db, without loading any boards
+     *
+     * @return List of all game summaries, by game ID
+     */
+    ArrayList<GameSummary> listGameSummaries() throws DataAccessException;
+
+    /**
+     * Adds given player to a game, rewriting the stored game state.
+     * Moves are recorded with {@link #appendMove} instead.
      *
      * @param gameData GameData object containing the updated game
      * @throws DataAccessException If attempting to update a game that doesn't exist
      */
     void updateGame(GameData gameData) throws DataAccessException;
 
+    /**
+     * Records the move just made in a game by appending it to the game's move log.
+     * The move's sequence number is the game's move count, so of two writers making
+     * a move from the same position only the first succeeds.
+     *
+     * @param gameID int ID of the game the move was made in
+     * @param game the game with the move already made
+     * @throws DataAccessException If the game doesn't exist or the move was already recorded
+     */
+    void appendMove(int gameID, ChessGame game) throws DataAccessException;
+
+    /**
+     * Get every move made in a game, for replaying or auditing it
+     *
+     * @param gameID int ID of the game
+     * @return The moves in the order they were made
+     * @throws DataAccessException If the game doesn't exist
+     */
+    List<ChessMove> getMoves(int gameID) throws DataAccessException;
+
+    /**
+     * Records how a game ended when it wasn't decided on the board, e.g. by resignation.
+     * A game's first result stands.
+     *
+     * @param gameID int ID of the game
+     * @param result how the game ended
+     * @return True if recorded, false if the game was already over
+     * @throws DataAccessException If the game doesn't exist
+     */
+    boolean setResult(int gameID, GameSummary.Status result) throws DataAccessException;
+
+    /**
+     * Find out whether a game is over
+     *
+     * @param gameID int ID of the game
+     * @return WHITE_WON, BLACK_WON or DRAW, whether decided on the board or recorded
+     * with {@link #setResult}, or null if the game isn't over
+     * @throws DataAccessException If the game doesn't exist
+     */
+    GameSummary.Status getResult(int gameID) throws DataAccessException;
+
     /**
      * Clear all GameData from db
      */
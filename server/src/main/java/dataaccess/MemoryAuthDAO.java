@@ -1,48 +1,45 @@
 package dataaccess;
 
 import model.AuthData;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MemoryAuthDAO implements AuthDAO {
 
-    private static MemoryAuthDAO instance;
-    private Set<AuthData> db;
+    // keyed by token, so lookups are O(1) and safe from any request thread
+    private final Map<String, AuthData> db = new ConcurrentHashMap<>();
 
-    public MemoryAuthDAO() {
-        db = new HashSet<>();
+    public MemoryAuthDAO() {}
+
+    private static final class Holder {
+        private static final MemoryAuthDAO INSTANCE = new MemoryAuthDAO();
     }
 
     public static MemoryAuthDAO getInstance() {
-        if (instance == null) {instance = new MemoryAuthDAO();}
-        return instance;
+        return Holder.INSTANCE;
     }
 
     @Override
     public boolean createAuth(AuthData authData) throws DataAccessException {
-        if (getAuth(authData.authToken()) == null) {return db.add(authData);}
+        if (db.putIfAbsent(authData.authToken(), authData) == null) {return true;}
         throw new DataAccessException("Error: Cannot create auth. User is already authenticated.");
     }
 
     @Override
     public AuthData getAuth(String authToken) {
-        for (AuthData auth : db) {
-            if (auth.authToken().equals(authToken)) {return auth;}
-        }
-        return null;
+        if (authToken == null) {return null;}
+        return db.get(authToken);
     }
 
     @Override
     public void deleteAuth(String authToken) throws DataAccessException {
-        AuthData authData = getAuth(authToken);
-        if (authData != null) {
-            db.remove(authData);
+        if (authToken == null || db.remove(authToken) == null) {
+            throw new DataAccessException("Error: Cannot delete auth. Auth data not found.");
         }
-        else {throw new DataAccessException("Error: Cannot delete auth. Auth data not found.");}
     }
 
     @Override
     public void clear() {
-        db = new HashSet<>();
+        db.clear();
     }
 }
@@ -1,54 +1,169 @@
 package dataaccess;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.GameCodec;
 import model.GameData;
+import model.GameSummary;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Keeps games in memory. Each game is stored encoded and decoded into a fresh
+ * {@link ChessGame} on every read, so a caller changing the game it got back, as
+ * makeMove does before appendMove, never touches one another thread is reading.
+ * What a game list needs is worked out when a game is written, so listing
+ * summaries decodes no games and does no move generation.
+ */
 public class MemoryGameDAO implements GameDAO {
 
-    private static MemoryGameDAO instance;
-    private ArrayList<GameData> db;
+    /**
+     * A stored game
+     *
+     * @param info the game without its ChessGame
+     * @param game the ChessGame in {@link GameCodec} form, or null if there is none
+     * @param moveCount the number of moves made in the game
+     */
+    private record Stored(GameData info, byte[] game, int moveCount) {
+        static Stored of(int gameID, GameData gameData) {
+            return new Stored(new GameData(gameID, gameData.whiteUsername(), gameData.blackUsername(),
+                    gameData.gameName(), null), encode(gameData.game()), countMoves(gameData.game()));
+        }
 
-    public MemoryGameDAO() {
-        db = new ArrayList<>();
+        GameData toGameData() {
+            return new GameData(info.gameID(), info.whiteUsername(), info.blackUsername(), info.gameName(),
+                    game == null ? null : GameCodec.decode(game));
+        }
+    }
+
+    // keyed by game ID, so lookups are O(1) and safe from any request thread
+    private final Map<Integer, Stored> db = new ConcurrentHashMap<>();
+    private final AtomicInteger nextID = new AtomicInteger(1);
+    // every finished game's result: resignations, and checkmates and stalemates recorded as games are written
+    private final Map<Integer, GameSummary.Status> results = new ConcurrentHashMap<>();
+
+    public MemoryGameDAO() {}
+
+    private static final class Holder {
+        private static final MemoryGameDAO INSTANCE = new MemoryGameDAO();
     }
 
     public static MemoryGameDAO getInstance() {
-        if (instance == null) {instance = new MemoryGameDAO();}
-        return instance;
+        return Holder.INSTANCE;
     }
 
     @Override
     public boolean createGame(GameData gameData) {
-        if (gameData.gameID() == db.size()) {
-            db.add(gameData);
-            return true;
+        // keep allocated IDs clear of ones chosen by the caller
+        nextID.accumulateAndGet(gameData.gameID() + 1, Math::max);
+        if (db.putIfAbsent(gameData.gameID(), Stored.of(gameData.gameID(), gameData)) != null) {return false;}
+        recordResult(gameData.gameID(), gameData.game());
+        return true;
+    }
+
+    @Override
+    public GameData createGameWithNewID(GameData gameData) {
+        while (true) {
+            int id = nextID.getAndIncrement();
+            Stored newGame = Stored.of(id, gameData);
+            if (db.putIfAbsent(id, newGame) == null) {
+                recordResult(id, gameData.game());
+                return newGame.toGameData();
+            }
         }
-        return false;
     }
 
     @Override
     public GameData getGame(int gameID) throws DataAccessException {
-        if (gameID >= db.size() || gameID < 0) {throw new DataAccessException("Error: Invalid game ID.");}
-        return db.get(gameID);
+        Stored stored = db.get(gameID);
+        if (stored == null) {throw new DataAccessException("Error: Invalid game ID.");}
+        return stored.toGameData();
     }
 
     @Override
     public ArrayList<GameData> listGames() {
-        return db;
+        ArrayList<GameData> games = new ArrayList<>();
+        for (Stored stored : db.values()) {
+            games.add(stored.toGameData());
+        }
+        games.sort(Comparator.comparingInt(GameData::gameID));
+        return games;
     }
 
     @Override
-    public void updateGame(GameData gameData) throws DataAccessException {
-        if (gameData.gameID() < db.size()) {
-            db.set(gameData.gameID(), gameData);
+    public ArrayList<GameSummary> listGameSummaries() {
+        ArrayList<GameSummary> summaries = new ArrayList<>();
+        for (Stored stored : db.values()) {
+            GameData info = stored.info();
+            GameSummary.Status status = GameSummary.Status.of(results.get(info.gameID()), info.whiteUsername(), info.blackUsername());
+            summaries.add(new GameSummary(info.gameID(), info.whiteUsername(), info.blackUsername(), info.gameName(),
+                    status, stored.moveCount()));
         }
-        else {
+        summaries.sort(Comparator.comparingInt(GameSummary::gameID));
+        return summaries;
+    }
+
+    @Override
+    public void updateGame(GameData gameData) throws DataAccessException {
+        if (db.replace(gameData.gameID(), Stored.of(gameData.gameID(), gameData)) == null) {
             throw new DataAccessException("Error: Cannot Update. Game does not exist.");
         }
+        recordResult(gameData.gameID(), gameData.game());
+    }
+
+    @Override
+    public void appendMove(int gameID, ChessGame game) throws DataAccessException {
+        // the encoded game carries its history, so that is the move log
+        byte[] encoded = encode(game);
+        Stored updated = db.computeIfPresent(gameID, (id, stored) -> new Stored(stored.info(), encoded, countMoves(game)));
+        if (updated == null) {throw new DataAccessException("Error: Cannot make move. Game does not exist.");}
+        recordResult(gameID, game);
+    }
+
+    @Override
+    public List<ChessMove> getMoves(int gameID) throws DataAccessException {
+        return getGame(gameID).game().getMoveHistory();
+    }
+
+    @Override
+    public boolean setResult(int gameID, GameSummary.Status result) throws DataAccessException {
+        if (getResult(gameID) != null) {return false;}
+        return results.putIfAbsent(gameID, result) == null;
+    }
+
+    @Override
+    public GameSummary.Status getResult(int gameID) throws DataAccessException {
+        if (!db.containsKey(gameID)) {throw new DataAccessException("Error: Invalid game ID.");}
+        return results.get(gameID);
+    }
+
+    /**
+     * Helper function. Records a game's result if it ended on the board. A result
+     * already recorded, such as a resignation, is kept.
+     */
+    private void recordResult(int gameID, ChessGame game) {
+        GameSummary.Status result = game == null ? null : GameSummary.Status.resultOf(game);
+        if (result != null) {
+            results.putIfAbsent(gameID, result);
+        }
+    }
+
+    private static byte[] encode(ChessGame game) {
+        return game == null ? null : GameCodec.encode(game);
+    }
+
+    private static int countMoves(ChessGame game) {
+        return game == null ? 0 : game.getMoveCount();
     }
 
     @Override
     public void clear() {
-        db = new ArrayList<>();
+        db.clear();
+        results.clear();
+        nextID.set(1);
     }
 }
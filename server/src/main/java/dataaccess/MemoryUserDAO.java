@@ -2,39 +2,38 @@ package dataaccess;
 
 import model.UserData;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MemoryUserDAO implements UserDAO {
 
-    private static MemoryUserDAO instance;
-    private Set<UserData> db;
+    // keyed by username, so lookups are O(1) and safe from any request thread
+    private final Map<String, UserData> db = new ConcurrentHashMap<>();
 
-    public MemoryUserDAO() {
-        db = new HashSet<>();
+    public MemoryUserDAO() {}
+
+    private static final class Holder {
+        private static final MemoryUserDAO INSTANCE = new MemoryUserDAO();
     }
 
     public static MemoryUserDAO getInstance() {
-        if (instance == null) {instance = new MemoryUserDAO();}
-        return instance;
+        return Holder.INSTANCE;
     }
 
     @Override
     public boolean createUser(UserData userData) throws DataAccessException {
-        if (getUser(userData.username()) == null) {return db.add(userData);}
+        if (db.putIfAbsent(userData.username(), userData) == null) {return true;}
         throw new DataAccessException("Error: Attempted Create, but user already exists.");
     }
 
     @Override
     public UserData getUser(String username) {
-        for (UserData user : db) {
-            if (user.username().equals(username)) {return user;}
-        }
-        return null;
+        if (username == null) {return null;}
+        return db.get(username);
     }
 
     @Override
     public void clear() {
-        db = new HashSet<>();
+        db.clear();
     }
 }
@@ -0,0 +1,235 @@
+package dataaccess;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The versioned steps that build the database schema. Each database records the
+ * versions applied to it in the schema_version table, and {@link #migrate} applies
+ * the missing ones in order. To change the schema, add a step with the next version
+ * number; never edit a step that has shipped.
+ */
+final class SchemaMigrations {
+
+    /**
+     * Changes the schema in place
+     */
+    @FunctionalInterface
+    interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    record Migration(int version, String description, Step step) {}
+
+    static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Create auth, user and game tables", conn -> {
+                execute(conn, """
+                    CREATE TABLE IF NOT EXISTS auth (
+                    authToken CHAR(36) NOT NULL,
+                    username VARCHAR(255) NOT NULL
+                    )""");
+                execute(conn, """
+                    CREATE TABLE IF NOT EXISTS user (
+                    username VARCHAR(255) NOT NULL,
+                    password VARCHAR(255) NOT NULL,
+                    email VARCHAR(255) NOT NULL
+                    )""");
+                execute(conn, """
+                    CREATE TABLE IF NOT EXISTS game (
+                    gameID INT AUTO_INCREMENT PRIMARY KEY,
+                    whiteUsername VARCHAR(255),
+                    blackUsername VARCHAR(255),
+                    gameName VARCHAR(255) NOT NULL,
+                    chessGame TEXT NOT NULL
+                    )""");
+            }),
+            // databases set up before versioning may already have the later columns
+            new Migration(2, "Store games in binary", conn -> {
+                if (!hasColumn(conn, "game", "chessGameData")) {
+                    execute(conn, "ALTER TABLE game MODIFY chessGame TEXT NULL, ADD COLUMN chessGameData BLOB");
+                }
+            }),
+            new Migration(3, "Add the move log and game snapshots", conn -> {
+                if (!hasColumn(conn, "game", "snapshotSeq")) {
+                    execute(conn, "ALTER TABLE game ADD COLUMN snapshotSeq INT NOT NULL DEFAULT 0");
+                }
+                // append-only move log; a game is its snapshot in the game table plus its moves after snapshotSeq
+                execute(conn, """
+                    CREATE TABLE IF NOT EXISTS game_move (
+                    gameID INT NOT NULL,
+                    seq INT NOT NULL,
+                    move SMALLINT NOT NULL,
+                    PRIMARY KEY (gameID, seq)
+                    )""");
+            }),
+            // lookups by token, username and player were full table scans
+            new Migration(4, "Add keys to auth and user and index game players", conn -> {
+                addPrimaryKey(conn, "auth", "authToken", "username");
+                addPrimaryKey(conn, "user", "username", "password", "email");
+                if (!hasIndex(conn, "game", "game_white")) {
+                    execute(conn, "CREATE INDEX game_white ON game (whiteUsername)");
+                }
+                if (!hasIndex(conn, "game", "game_black")) {
+                    execute(conn, "CREATE INDEX game_black ON game (blackUsername)");
+                }
+            }),
+            // lets game lists show whether a game is over without loading it
+            new Migration(5, "Add game results", conn -> {
+                if (!hasColumn(conn, "game", "result")) {
+                    execute(conn, "ALTER TABLE game ADD COLUMN result VARCHAR(16) NULL");
+                }
+            })
+    );
+
+    /** The version of the schema the DAOs are written for */
+    static final int LATEST_VERSION = MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+
+    private static final String LOCK_NAME = "chess_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 30;
+
+    private SchemaMigrations() {}
+
+    /**
+     * Brings the schema up to the latest version. A MySQL named lock keeps two
+     * servers sharing a database from migrating it at the same time.
+     *
+     * @param conn a connection to the database
+     * @return the number of migrations applied
+     */
+    static int migrate(Connection conn) throws SQLException {
+        execute(conn, """
+            CREATE TABLE IF NOT EXISTS schema_version (
+            version INT NOT NULL PRIMARY KEY,
+            description VARCHAR(255) NOT NULL,
+            appliedAt TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+            )""");
+        if (currentVersion(conn) >= LATEST_VERSION) {
+            return 0;
+        }
+
+        try (var lockPdStmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            lockPdStmt.setString(1, LOCK_NAME);
+            lockPdStmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (var resultSet = lockPdStmt.executeQuery()) {
+                if (!resultSet.next() || resultSet.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for another server to migrate the schema");
+                }
+            }
+        }
+        try {
+            // another server may have migrated while we waited for the lock
+            int current = currentVersion(conn);
+            int applied = 0;
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version() <= current) {
+                    continue;
+                }
+                migration.step().apply(conn);
+                try (var pdStmt = conn.prepareStatement("INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                    pdStmt.setInt(1, migration.version());
+                    pdStmt.setString(2, migration.description());
+                    pdStmt.executeUpdate();
+                }
+                applied++;
+            }
+            return applied;
+        }
+        finally {
+            try (var unlockPdStmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                unlockPdStmt.setString(1, LOCK_NAME);
+                unlockPdStmt.executeQuery().close();
+            }
+        }
+    }
+
+    /**
+     * @param conn a connection to the database
+     * @return the highest schema version applied, or 0 for an empty database
+     */
+    static int currentVersion(Connection conn) throws SQLException {
+        try (var pdStmt = conn.prepareStatement("SELECT COALESCE(MAX(version), 0) FROM schema_version");
+             var resultSet = pdStmt.executeQuery()) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static void execute(Connection conn, String statement) throws SQLException {
+        try (var pdStmt = conn.prepareStatement(statement)) {
+            pdStmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Helper function. Gives a table a primary key in place. Tables from before the key
+     * may hold rows sharing a key; of those, the row whose other columns sort first is
+     * kept, so the same rows survive whichever server migrates. The key is then added
+     * with a single ALTER TABLE, which InnoDB applies atomically, so rows written by
+     * servers still running the old version are never lost. If one of them writes a
+     * new duplicate first, the ALTER fails and the migration is retried on the next start.
+     *
+     * @param conn a connection to the database
+     * @param table the table to key
+     * @param key the column to make the primary key
+     * @param others the table's other columns, none of them nullable
+     */
+    private static void addPrimaryKey(Connection conn, String table, String key, String... others) throws SQLException {
+        try (var keys = conn.getMetaData().getPrimaryKeys(conn.getCatalog(), null, table)) {
+            if (keys.next()) {
+                return;
+            }
+        }
+        execute(conn, "DELETE a FROM " + table + " a JOIN " + table + " b ON a." + key + " = b." + key
+                + " AND " + columns("a", others) + " > " + columns("b", others));
+
+        // any duplicates left are identical rows, so it doesn't matter which copies go
+        Map<String, Integer> copies = new LinkedHashMap<>();
+        try (var pdStmt = conn.prepareStatement("SELECT " + key + ", COUNT(*) FROM " + table
+                + " GROUP BY " + key + " HAVING COUNT(*) > 1");
+             var resultSet = pdStmt.executeQuery()) {
+            while (resultSet.next()) {
+                copies.put(resultSet.getString(1), resultSet.getInt(2));
+            }
+        }
+        for (var entry : copies.entrySet()) {
+            try (var pdStmt = conn.prepareStatement("DELETE FROM " + table + " WHERE " + key + " = ? LIMIT ?")) {
+                pdStmt.setString(1, entry.getKey());
+                pdStmt.setInt(2, entry.getValue() - 1);
+                pdStmt.executeUpdate();
+            }
+        }
+
+        execute(conn, "ALTER TABLE " + table + " ADD PRIMARY KEY (" + key + ")");
+    }
+
+    /**
+     * Helper function. Builds a row constructor such as {@code (a.password, a.email)}
+     */
+    private static String columns(String alias, String... columns) {
+        StringBuilder sql = new StringBuilder("(");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i == 0 ? "" : ", ").append(alias).append('.').append(columns[i]);
+        }
+        return sql.append(')').toString();
+    }
+
+    private static boolean hasIndex(Connection conn, String table, String index) throws SQLException {
+        try (var indexes = conn.getMetaData().getIndexInfo(conn.getCatalog(), null, table, false, false)) {
+            while (indexes.next()) {
+                if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        try (var columns = conn.getMetaData().getColumns(conn.getCatalog(), null, table, column)) {
+            return columns.next();
+        }
+    }
+}
@@ -7,7 +7,6 @@ public class SqlAuthDAO implements AuthDAO {
 
     @Override
     public boolean createAuth(AuthData authData) throws DataAccessException {
-        DatabaseManager.createDatabase();
         AuthData auth = getAuth(authData.authToken());
         if (auth != null) {throw new DataAccessException("Error: Cannot create auth. User is already authenticated.");}
 
@@ -25,7 +24,6 @@ public class SqlAuthDAO implements AuthDAO {
 
     @Override
     public AuthData getAuth(String authToken) throws DataAccessException {
-        DatabaseManager.createDatabase();
         try (var conn = DatabaseManager.getConnection()) {
             var pdStmt = conn.prepareStatement("SELECT authToken, username FROM auth WHERE authToken = ?");
             pdStmt.setString(1, authToken);
@@ -45,7 +43,6 @@ public class SqlAuthDAO implements AuthDAO {
 
     @Override
     public void deleteAuth(String authToken) throws DataAccessException {
-        DatabaseManager.createDatabase();
         try (var conn = DatabaseManager.getConnection()) {
             var pdStmt = conn.prepareStatement("DELETE FROM auth WHERE authToken = ?");
             pdStmt.setString(1, authToken);
@@ -60,7 +57,6 @@ public class SqlAuthDAO implements AuthDAO {
 
     @Override
     public void clear() throws DataAccessException {
-        DatabaseManager.createDatabase();
         try (var conn = DatabaseManager.getConnection()) {
             var pdStmt = conn.prepareStatement("TRUNCATE TABLE auth");
             pdStmt.executeUpdate();
@@ -1,30 +1,84 @@
 package dataaccess;
 
+import chess.ChessJson;
+import chess.ChessMove;
+import chess.GameCodec;
+import chess.Move;
+import chess.MoveList;
 import com.google.gson.Gson;
 import model.GameData;
+import model.GameSummary;
 import chess.ChessGame;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
+/**
+ * Stores each game as a snapshot in the game table plus an append-only log of the
+ * moves made since, in the game_move table. Making a move inserts one small row;
+ * every {@link #SNAPSHOT_INTERVAL} moves the snapshot is rewritten so rebuilding
+ * a game never replays more than that many moves. The snapshotSeq column holds
+ * the number of moves the snapshot already includes.
+ */
 public class SqlGameDAO implements GameDAO {
 
-    private static final Gson GSON = new Gson();
+    private static final Gson GSON = ChessJson.GSON;
+
+    /** Number of moves between snapshot rewrites */
+    public static final int SNAPSHOT_INTERVAL = 20;
+
+    /**
+     * How the chess game is written to the game table. Both forms are always readable;
+     * in BINARY mode JSON rows are rewritten as binary the first time they are read.
+     */
+    public enum StorageMode {
+        /** GameCodec bytes in the chessGameData BLOB column */
+        BINARY,
+        /** JSON in the chessGame TEXT column, as before binary storage */
+        JSON
+    }
+
+    private final StorageMode storageMode;
+
+    public SqlGameDAO() {
+        this(DatabaseManager.gameStorage().equalsIgnoreCase("json") ? StorageMode.JSON : StorageMode.BINARY);
+    }
+
+    public SqlGameDAO(StorageMode storageMode) {
+        this.storageMode = storageMode;
+    }
 
     @Override
     public boolean createGame(GameData gameData) throws DataAccessException {
-        DatabaseManager.createDatabase();
+        // the table assigns the ID either way
+        createGameWithNewID(gameData);
+        return true;
+    }
+
+    @Override
+    public GameData createGameWithNewID(GameData gameData) throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
-            var pdStmt = conn.prepareStatement("INSERT INTO game (whiteUsername, blackUsername, gameName, chessGame) VALUES (?, ?, ?, ?)");
+            var pdStmt = conn.prepareStatement("INSERT INTO game (whiteUsername, blackUsername, gameName, chessGame, chessGameData, snapshotSeq, result) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
             pdStmt.setString(1, gameData.whiteUsername());
             pdStmt.setString(2, gameData.blackUsername());
             pdStmt.setString(3, gameData.gameName());
-
-            var gameJson = GSON.toJson(gameData.game());
-            pdStmt.setString(4, gameJson);
-
+            setGame(pdStmt, 4, gameData.game());
             pdStmt.executeUpdate();
-            return true;
+
+            var keys = pdStmt.getGeneratedKeys();
+            if (!keys.next()) {throw new DataAccessException("Error: Creating a game failed.");}
+            return new GameData(keys.getInt(1), gameData.whiteUsername(), gameData.blackUsername(), gameData.gameName(), gameData.game());
         }
         catch (SQLException e) {
             throw new DataAccessException(e.getMessage());
@@ -33,9 +87,8 @@ public class SqlGameDAO implements GameDAO {
 
     @Override
     public GameData getGame(int gameID) throws DataAccessException {
-        DatabaseManager.createDatabase();
         try (var conn = DatabaseManager.getConnection()) {
-            var pdStmt = conn.prepareStatement("SELECT whiteUsername, blackUsername, gameName, chessGame FROM game WHERE gameID = ?");
+            var pdStmt = conn.prepareStatement("SELECT whiteUsername, blackUsername, gameName, chessGame, chessGameData, snapshotSeq FROM game WHERE gameID = ?");
             pdStmt.setInt(1, gameID);
             var resultSet = pdStmt.executeQuery();
 
@@ -43,8 +96,16 @@ public class SqlGameDAO implements GameDAO {
                 String whitePlayer = resultSet.getString("whiteUsername");
                 String blackPlayer = resultSet.getString("blackUsername");
                 String gameName = resultSet.getString("gameName");
-                String gameJson = resultSet.getString("chessGame");
-                ChessGame game = GSON.fromJson(gameJson, ChessGame.class);
+                ChessGame game = readGame(resultSet);
+                boolean legacy = needsMigration(resultSet);
+
+                var movePdStmt = conn.prepareStatement("SELECT gameID, seq, move FROM game_move WHERE gameID = ? AND seq > ? ORDER BY seq");
+                movePdStmt.setInt(1, gameID);
+                movePdStmt.setInt(2, resultSet.getInt("snapshotSeq"));
+                replay(movePdStmt.executeQuery(), Map.of(gameID, game));
+                if (legacy) {
+                    migrate(conn, Map.of(gameID, game));
+                }
 
                 return new GameData(gameID, whitePlayer, blackPlayer, gameName, game);
             }
@@ -57,21 +118,30 @@ public class SqlGameDAO implements GameDAO {
 
     @Override
     public ArrayList<GameData> listGames() throws DataAccessException {
-        DatabaseManager.createDatabase();
         try (var conn = DatabaseManager.getConnection()) {
             var pdStmt = conn.prepareStatement("SELECT * FROM game");
             var resultSet = pdStmt.executeQuery();
 
             ArrayList<GameData> gameList = new ArrayList<>();
+            Map<Integer, ChessGame> games = new HashMap<>();
+            Map<Integer, ChessGame> legacyRows = new TreeMap<>();
             while (resultSet.next()) {
                 int gameID = resultSet.getInt("gameID");
                 String whitePlayer = resultSet.getString("whiteUsername");
                 String blackPlayer = resultSet.getString("blackUsername");
                 String gameName = resultSet.getString("gameName");
-                String gameJson = resultSet.getString("chessGame");
-                ChessGame game = GSON.fromJson(gameJson, ChessGame.class);
+                ChessGame game = readGame(resultSet);
+                if (needsMigration(resultSet)) {
+                    legacyRows.put(gameID, game);
+                }
+                games.put(gameID, game);
                 gameList.add(new GameData(gameID, whitePlayer, blackPlayer, gameName, game));
             }
+
+            // one query for the moves after every game's snapshot
+            var movePdStmt = conn.prepareStatement("SELECT m.gameID, m.seq, m.move FROM game_move m JOIN game g ON g.gameID = m.gameID WHERE m.seq > g.snapshotSeq ORDER BY m.gameID, m.seq");
+            replay(movePdStmt.executeQuery(), games);
+            migrate(conn, legacyRows);
             return gameList;
         }
         catch (SQLException e) {
@@ -79,19 +149,43 @@ public class SqlGameDAO implements GameDAO {
         }
     }
 
+    @Override
+    public ArrayList<GameSummary> listGameSummaries() throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            // the move count is the newest logged move, found through the game_move primary key
+            var pdStmt = conn.prepareStatement("""
+                SELECT g.gameID, g.whiteUsername, g.blackUsername, g.gameName, g.result,
+                GREATEST(g.snapshotSeq, COALESCE((SELECT MAX(m.seq) FROM game_move m WHERE m.gameID = g.gameID), 0)) AS moveCount
+                FROM game g ORDER BY g.gameID""");
+            var resultSet = pdStmt.executeQuery();
+
+            ArrayList<GameSummary> summaries = new ArrayList<>();
+            while (resultSet.next()) {
+                String whitePlayer = resultSet.getString("whiteUsername");
+                String blackPlayer = resultSet.getString("blackUsername");
+                String result = resultSet.getString("result");
+                GameSummary.Status status = GameSummary.Status.of(result == null ? null : GameSummary.Status.valueOf(result),
+                        whitePlayer, blackPlayer);
+                summaries.add(new GameSummary(resultSet.getInt("gameID"), whitePlayer, blackPlayer,
+                        resultSet.getString("gameName"), status, resultSet.getInt("moveCount")));
+            }
+            return summaries;
+        }
+        catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
     @Override
     public void updateGame(GameData gameData) throws DataAccessException {
-        DatabaseManager.createDatabase();
         try (var conn = DatabaseManager.getConnection()) {
-            var pdStmt = conn.prepareStatement("UPDATE game SET whiteUsername = ?, blackUsername = ?, gameName = ?, chessGame = ? WHERE gameID = ?");
+            var pdStmt = conn.prepareStatement("UPDATE game SET whiteUsername = ?, blackUsername = ?, gameName = ?, chessGame = ?, chessGameData = ?, snapshotSeq = ?, result = COALESCE(result, ?) WHERE gameID = ?");
             pdStmt.setString(1, gameData.whiteUsername());
             pdStmt.setString(2, gameData.blackUsername());
             pdStmt.setString(3, gameData.gameName());
+            setGame(pdStmt, 4, gameData.game());
 
-            var gameJson = GSON.toJson(gameData.game());
-            pdStmt.setString(4, gameJson);
-
-            pdStmt.setInt(5, gameData.gameID());
+            pdStmt.setInt(8, gameData.gameID());
 
             if (pdStmt.executeUpdate() <= 0) {throw new DataAccessException("Error: Cannot Update. Game does not exist.");}
         }
@@ -100,15 +194,199 @@ public class SqlGameDAO implements GameDAO {
         }
     }
 
+    @Override
+    public void appendMove(int gameID, ChessGame game) throws DataAccessException {
+        ChessMove lastMove = game.getLastMove();
+        int seq = game.getMoveCount();
+        if (lastMove == null || seq == 0) {throw new DataAccessException("Error: No move to record.");}
+
+        try (var conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // selecting from game makes the insert a no-op when the game doesn't exist
+                var pdStmt = conn.prepareStatement("INSERT INTO game_move (gameID, seq, move) SELECT gameID, ?, ? FROM game WHERE gameID = ?");
+                pdStmt.setInt(1, seq);
+                pdStmt.setShort(2, (short) Move.key(Move.fromChessMove(lastMove)));
+                pdStmt.setInt(3, gameID);
+                if (pdStmt.executeUpdate() <= 0) {throw new DataAccessException("Error: Cannot make move. Game does not exist.");}
+
+                // a finished game is snapshotted so its result is recorded
+                if (seq % SNAPSHOT_INTERVAL == 0 || GameSummary.Status.resultOf(game) != null) {
+                    var snapshotPdStmt = conn.prepareStatement("UPDATE game SET chessGame = ?, chessGameData = ?, snapshotSeq = ?, result = COALESCE(result, ?) WHERE gameID = ? AND snapshotSeq < ?");
+                    setGame(snapshotPdStmt, 1, game);
+                    snapshotPdStmt.setInt(5, gameID);
+                    snapshotPdStmt.setInt(6, seq);
+                    snapshotPdStmt.executeUpdate();
+                }
+                conn.commit();
+            }
+            catch (SQLException | DataAccessException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        catch (SQLIntegrityConstraintViolationException e) {
+            throw new DataAccessException("Error: Move " + seq + " of game " + gameID + " was already made.");
+        }
+        catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    @Override
+    public List<ChessMove> getMoves(int gameID) throws DataAccessException {
+        // the snapshot holds the moves before it and getGame replays the log after it
+        return getGame(gameID).game().getMoveHistory();
+    }
+
+    @Override
+    public boolean setResult(int gameID, GameSummary.Status result) throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            // a checkmate or stalemate already has its result stored with the final snapshot
+            var pdStmt = conn.prepareStatement("UPDATE game SET result = ? WHERE gameID = ? AND result IS NULL");
+            pdStmt.setString(1, result.name());
+            pdStmt.setInt(2, gameID);
+            if (pdStmt.executeUpdate() > 0) {return true;}
+        }
+        catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+        // nothing updated: either already over or no such game
+        getResult(gameID);
+        return false;
+    }
+
+    @Override
+    public GameSummary.Status getResult(int gameID) throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            var pdStmt = conn.prepareStatement("SELECT result FROM game WHERE gameID = ?");
+            pdStmt.setInt(1, gameID);
+            var resultSet = pdStmt.executeQuery();
+
+            if (!resultSet.next()) {throw new DataAccessException("Error: Invalid game ID.");}
+            String result = resultSet.getString("result");
+            return result == null ? null : GameSummary.Status.valueOf(result);
+        }
+        catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
     @Override
     public void clear() throws DataAccessException {
-        DatabaseManager.createDatabase();
         try (var conn = DatabaseManager.getConnection()) {
             var pdStmt = conn.prepareStatement("TRUNCATE TABLE game");
             pdStmt.executeUpdate();
+            pdStmt = conn.prepareStatement("TRUNCATE TABLE game_move");
+            pdStmt.executeUpdate();
         }
         catch (SQLException e) {
             throw new DataAccessException(e.getMessage());
         }
     }
+
+    /**
+     * Helper function. Fills the chessGame and chessGameData parameters
+     * for the storage mode, leaving the other column null, the snapshotSeq
+     * parameter with the number of moves the game includes and the result
+     * parameter with the game's result, if it is over
+     *
+     * @param pdStmt the statement to fill
+     * @param jsonIndex index of the chessGame parameter; chessGameData, snapshotSeq and result must follow it
+     * @param game the game to store
+     */
+    private void setGame(PreparedStatement pdStmt, int jsonIndex, ChessGame game) throws SQLException {
+        pdStmt.setInt(jsonIndex + 2, game.getMoveCount());
+        GameSummary.Status result = GameSummary.Status.resultOf(game);
+        pdStmt.setString(jsonIndex + 3, result == null ? null : result.name());
+        if (storageMode == StorageMode.BINARY) {
+            pdStmt.setNull(jsonIndex, Types.VARCHAR);
+            pdStmt.setBytes(jsonIndex + 1, GameCodec.encode(game));
+        }
+        else {
+            pdStmt.setString(jsonIndex, GSON.toJson(game));
+            pdStmt.setNull(jsonIndex + 1, Types.BLOB);
+        }
+    }
+
+    /**
+     * Helper function. Reads a game from whichever column holds it,
+     * preferring the binary form
+     *
+     * @param resultSet a row of the game table
+     * @return the stored game
+     */
+    private static ChessGame readGame(ResultSet resultSet) throws SQLException, DataAccessException {
+        byte[] gameData = resultSet.getBytes("chessGameData");
+        if (gameData != null) {
+            try {
+                return GameCodec.decode(gameData);
+            }
+            catch (IllegalArgumentException e) {
+                throw new DataAccessException("Error: Stored game is corrupt. " + e.getMessage());
+            }
+        }
+        return GSON.fromJson(resultSet.getString("chessGame"), ChessGame.class);
+    }
+
+    /**
+     * Helper function. Makes logged moves on their games' snapshots
+     *
+     * @param moves game_move rows with gameID, seq and move, ordered by game and seq
+     * @param games the snapshots, keyed by game ID
+     * @throws DataAccessException if the log has a gap or a move that isn't legal
+     */
+    private static void replay(ResultSet moves, Map<Integer, ChessGame> games) throws SQLException, DataAccessException {
+        MoveList legal = new MoveList();
+        while (moves.next()) {
+            int gameID = moves.getInt("gameID");
+            int seq = moves.getInt("seq");
+            ChessGame game = games.get(gameID);
+            if (game == null) {
+                continue;
+            }
+            if (seq != game.getMoveCount() + 1) {
+                throw new DataAccessException("Error: Move log of game " + gameID + " is missing move " + (game.getMoveCount() + 1) + ".");
+            }
+            int move = moves.getShort("move") & 0xFFFF;
+            legal.clear();
+            game.legalMoves(legal);
+            int found = Move.NONE;
+            for (int i = 0; i < legal.size(); i++) {
+                if (Move.key(legal.get(i)) == move) {
+                    found = legal.get(i);
+                    break;
+                }
+            }
+            if (found == Move.NONE) {
+                throw new DataAccessException("Error: Move " + seq + " of game " + gameID + " is not legal.");
+            }
+            game.makeMove(found);
+        }
+    }
+
+    private boolean needsMigration(ResultSet resultSet) throws SQLException {
+        return storageMode == StorageMode.BINARY && resultSet.getBytes("chessGameData") == null;
+    }
+
+    /**
+     * Helper function. Rewrites JSON rows in binary form
+     *
+     * @param conn the open connection
+     * @param games the decoded games with their logged moves made, keyed by game ID
+     */
+    private static void migrate(Connection conn, Map<Integer, ChessGame> games) throws SQLException {
+        if (games.isEmpty()) {
+            return;
+        }
+        try (var pdStmt = conn.prepareStatement("UPDATE game SET chessGame = NULL, chessGameData = ?, snapshotSeq = ? WHERE gameID = ? AND chessGameData IS NULL")) {
+            for (Map.Entry<Integer, ChessGame> entry : games.entrySet()) {
+                pdStmt.setBytes(1, GameCodec.encode(entry.getValue()));
+                pdStmt.setInt(2, entry.getValue().getMoveCount());
+                pdStmt.setInt(3, entry.getKey());
+                pdStmt.addBatch();
+            }
+            pdStmt.executeBatch();
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package handler;
 
+import chess.ChessJson;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -8,6 +9,7 @@ import model.GameData;
 import model.Games;
 import model.UserData;
 import service.BadRequestException;
+import service.GameExecutor;
 import service.GameService;
 import service.UserService;
 import spark.Route;
@@ -17,7 +19,7 @@ import java.util.Objects;
 
 public class Handler {
 
-    private static final Gson GSON = new Gson();
+    private static final Gson GSON = ChessJson.GSON;
     private static final UserService USER_SERVICE = new UserService();
     private static final GameService GAME_SERVICE = new GameService();
 
@@ -56,20 +58,31 @@ public class Handler {
         return GSON.toJson(games);
     };
 
+    public static Route handleGet = (Request req, Response res) -> {
+        String token = req.headers("authorization");
+        AuthData auth = new AuthData(token, null);
+        int gameID;
+        try {
+            gameID = Integer.parseInt(req.params(":id"));
+        }
+        catch (NumberFormatException e) {
+            throw new BadRequestException("Error: Invalid game ID.");
+        }
+
+        GameData game = GAME_SERVICE.getGame(auth, gameID);
+
+        res.type("application/json");
+        return GSON.toJson(game);
+    };
+
     public static Route handleCreate = (Request req, Response res) -> {
         String token = req.headers("authorization");
         AuthData auth = new AuthData(token, null);
         GameData gameName = GSON.fromJson(req.body(), GameData.class);
 
+        // IDs start at 1, as clients expect
         GameData game = GAME_SERVICE.createGame(auth, gameName);
 
-        //I had to add this code, because the project specifications for my CS 240 class were unfortunately incomplete.
-        //There were a number of output requirements that weren't in the instructions.
-        //So, in this case, they made me code the entire thing just to find out that the test cases only accept gameIDs > 0.
-        //I had to spend another few hours adding unnecessary code like this to suit very particular output requirements.
-        // (I'll rework my implementation when I'm no longer pressured by due dates)
-        game = new GameData(game.gameID() + 1, game.whiteUsername(), game.blackUsername(), game.gameName(), game.game());
-
         res.type("application/json");
         return GSON.toJson(game);
     };
@@ -95,7 +108,9 @@ public class Handler {
             } else {throw new BadRequestException("Error: Please provide valid team color.");}
         }
 
-        GAME_SERVICE.joinGame(auth, game);
+        // in line with the game's moves, so a join can't overwrite one made while it ran
+        GameData join = game;
+        GameExecutor.getInstance().call(join.gameID(), () -> GAME_SERVICE.joinGame(auth, join));
 
         res.type("application/json");
         return "{}";
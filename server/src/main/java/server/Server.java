@@ -1,15 +1,36 @@
 package server;
 
+import dataaccess.DataAccessException;
+import dataaccess.DatabaseManager;
 import handler.Handler;
+import server.websocket.WebSocketHandler;
+import server.websocket.Broadcaster;
 import spark.*;
 import com.google.gson.Gson;
+import chess.ChessJson;
+
+import java.io.IOException;
+import java.util.Properties;
 
 public class Server {
-    private static final Gson GSON = new Gson();
+    private static final Gson GSON = ChessJson.GSON;
+
+    private WebSocketHandler webSocketHandler;
 
     public int run(int desiredPort) {
+        try {
+            DatabaseManager.createDatabase();
+        }
+        catch (DataAccessException e) {
+            throw new RuntimeException("Unable to set up the database. " + e.getMessage());
+        }
+
         Spark.port(desiredPort);
 
+        // must be registered before any route
+        webSocketHandler = new WebSocketHandler(createBroadcaster());
+        Spark.webSocket("/ws", webSocketHandler);
+
         Spark.staticFiles.location("web");
 
         // Register your endpoints and handle exceptions here.
@@ -17,6 +38,7 @@ public class Server {
         Spark.post("/session", Handler.handleLogin);
         Spark.delete("/session", Handler.handleLogout);
         Spark.get("/game", Handler.handleList);
+        Spark.get("/game/:id", Handler.handleGet);
         Spark.post("/game", Handler.handleCreate);
         Spark.put("/game", Handler.handleJoin);
         Spark.delete("/db", Handler.handleClear);
@@ -38,9 +60,34 @@ public class Server {
         return Spark.port();
     }
 
+    /**
+     * @return the WebSocket broadcast counters, queue depths and drops, or null before run
+     */
+    public Broadcaster.Stats broadcastStats() {
+        return webSocketHandler == null ? null : webSocketHandler.broadcastStats();
+    }
+
+    /**
+     * Helper function. Creates the WebSocket broadcaster with the slow-consumer
+     * settings from the optional server.properties (see {@link Broadcaster#fromProperties})
+     */
+    private static Broadcaster createBroadcaster() {
+        Properties props = new Properties();
+        try (var propStream = Thread.currentThread().getContextClassLoader().getResourceAsStream("server.properties")) {
+            if (propStream != null) {
+                props.load(propStream);
+            }
+            return Broadcaster.fromProperties(props);
+        }
+        catch (IOException | IllegalArgumentException e) {
+            throw new RuntimeException("unable to process server.properties. " + e.getMessage());
+        }
+    }
+
     public void stop() {
         Spark.stop();
         Spark.awaitStop();
+        DatabaseManager.shutdown();
     }
 
     private static class ErrorResponse {
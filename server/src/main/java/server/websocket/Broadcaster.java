@@ -0,0 +1,413 @@
+package server.websocket;
+
+import chess.ChessGame;
+import chess.ChessJson;
+import com.google.gson.Gson;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WebSocketException;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.common.WebSocketRemoteEndpoint;
+import org.eclipse.jetty.websocket.common.frames.TextFrame;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.ServerMessage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Sends server messages to sessions. A broadcast encodes its message once, to JSON
+ * and then UTF-8, and every recipient is sent a view of that same read-only buffer,
+ * so a game with hundreds of observers still serializes each update only once.
+ * <p>
+ * Each session has a bounded outbound queue and at most one message being written,
+ * so sending never blocks the game's executor, and a stalled socket holds at most
+ * {@code maxPending} messages. When a queue is full the {@link SlowConsumerPolicy}
+ * decides what gives. Fan-out time is the time to queue a message for every
+ * recipient, not to deliver it.
+ */
+public class Broadcaster {
+
+    private static final Gson GSON = ChessJson.GSON;
+
+    public static final int DEFAULT_MAX_PENDING = 64;
+
+    /**
+     * What to do when a session's queue is full
+     */
+    public enum SlowConsumerPolicy {
+        /**
+         * Drop the game updates the session hasn't been sent yet and queue one LOAD_GAME
+         * of the latest state in their place. Notifications are dropped oldest first.
+         */
+        COALESCE,
+        /** Disconnect the session, dropping everything queued; the client can connect again */
+        DISCONNECT
+    }
+
+    /**
+     * A message encoded once for any number of recipients
+     *
+     * @param json the message as JSON
+     * @param utf8 the JSON as UTF-8; read-only, so it can't be changed while shared
+     */
+    public record EncodedMessage(String json, ByteBuffer utf8) {
+        public static EncodedMessage encode(ServerMessage message) {
+            String json = GSON.toJson(message);
+            return new EncodedMessage(json, ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer());
+        }
+    }
+
+    /**
+     * A LOAD_GAME of a game's state, encoded the first time it is needed and then shared.
+     * It must be sent, or given with the update that led to it, before the game changes again.
+     */
+    public static final class Snapshot {
+        private final ServerMessage message;
+        private EncodedMessage encoded;
+
+        public Snapshot(ChessGame game) {
+            this.message = new LoadGameMessage(game);
+        }
+
+        synchronized EncodedMessage encoded() {
+            if (encoded == null) {
+                encoded = EncodedMessage.encode(message);
+            }
+            return encoded;
+        }
+    }
+
+    /**
+     * A snapshot of the broadcast counters. Times cover every broadcast since the
+     * server started; single sends aren't counted as broadcasts.
+     *
+     * @param queuedMessages messages waiting in session queues right now
+     * @param maxQueueDepth the most messages any one session has had waiting
+     * @param dropped messages dropped from full queues, including when disconnecting
+     * @param coalesced times a full queue's game updates were replaced with a snapshot
+     * @param disconnects sessions disconnected for having too many messages waiting
+     */
+    public record Stats(long broadcasts, long messagesSent, long bytesSent, double meanEncodeMicros,
+                        double maxEncodeMicros, double meanFanOutMicros, double maxFanOutMicros,
+                        int queuedMessages, int maxQueueDepth, long dropped, long coalesced, long disconnects) {}
+
+    /**
+     * A message waiting to be sent
+     *
+     * @param state for a game update, the game's snapshot after it; null for other messages
+     */
+    private record Pending(EncodedMessage message, Snapshot state) {}
+
+    private final SlowConsumerPolicy policy;
+    private final int maxPending;
+    private final Map<Session, Outbox> outboxes = new ConcurrentHashMap<>();
+
+    private final LongAdder broadcasts = new LongAdder();
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder totalEncodeNanos = new LongAdder();
+    private final AtomicLong maxEncodeNanos = new AtomicLong();
+    private final LongAdder totalFanOutNanos = new LongAdder();
+    private final AtomicLong maxFanOutNanos = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder disconnects = new LongAdder();
+
+    public Broadcaster() {
+        this(SlowConsumerPolicy.COALESCE, DEFAULT_MAX_PENDING);
+    }
+
+    /**
+     * @param policy what to do when a session's queue is full
+     * @param maxPending how many messages a session can have waiting behind the one being written
+     */
+    public Broadcaster(SlowConsumerPolicy policy, int maxPending) {
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("maxPending must be positive");
+        }
+        this.policy = policy;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Creates a broadcaster from the optional ws.slowConsumerPolicy (COALESCE or
+     * DISCONNECT) and ws.maxPending properties, using the defaults for any not given
+     */
+    public static Broadcaster fromProperties(Properties props) {
+        SlowConsumerPolicy policy = SlowConsumerPolicy.valueOf(
+                props.getProperty("ws.slowConsumerPolicy", SlowConsumerPolicy.COALESCE.name()).trim().toUpperCase());
+        int maxPending = Integer.parseInt(props.getProperty("ws.maxPending", String.valueOf(DEFAULT_MAX_PENDING)).trim());
+        return new Broadcaster(policy, maxPending);
+    }
+
+    /**
+     * Sends a message that isn't a game update to one session
+     */
+    public void send(Session session, ServerMessage message) {
+        outbox(session).offer(new Pending(EncodedMessage.encode(message), null));
+    }
+
+    /**
+     * Sends one session the whole game
+     */
+    public void send(Session session, Snapshot snapshot) {
+        outbox(session).offer(new Pending(snapshot.encoded(), snapshot));
+    }
+
+    /**
+     * Sends one session a game update
+     *
+     * @param after the game's state after the update, sent instead if the update has to be dropped
+     */
+    public void send(Session session, ServerMessage update, Snapshot after) {
+        outbox(session).offer(new Pending(EncodedMessage.encode(update), after));
+    }
+
+    /**
+     * Encodes a message that isn't a game update once and sends it to every session given.
+     * Nothing is encoded, or counted, when there are no sessions.
+     */
+    public void broadcast(Collection<Session> sessions, ServerMessage message) {
+        broadcast(sessions, () -> EncodedMessage.encode(message), null);
+    }
+
+    /**
+     * Sends the whole game to every session given
+     */
+    public void broadcast(Collection<Session> sessions, Snapshot snapshot) {
+        broadcast(sessions, snapshot::encoded, snapshot);
+    }
+
+    /**
+     * Encodes a game update once and sends it to every session given
+     *
+     * @param after the game's state after the update, sent instead to sessions that are too far behind
+     */
+    public void broadcast(Collection<Session> sessions, ServerMessage update, Snapshot after) {
+        broadcast(sessions, () -> EncodedMessage.encode(update), after);
+    }
+
+    /**
+     * Forgets a closed session, dropping anything still queued for it
+     */
+    public void closed(Session session) {
+        Outbox outbox = outboxes.remove(session);
+        if (outbox != null) {
+            outbox.close();
+        }
+    }
+
+    /**
+     * @return the broadcast counts, encode and fan-out times and queue counters
+     */
+    public Stats stats() {
+        int queued = 0;
+        for (Outbox outbox : outboxes.values()) {
+            queued += outbox.depth();
+        }
+        long count = broadcasts.sum();
+        return new Stats(count, messagesSent.sum(), bytesSent.sum(),
+                count == 0 ? 0 : totalEncodeNanos.sum() / 1e3 / count, maxEncodeNanos.get() / 1e3,
+                count == 0 ? 0 : totalFanOutNanos.sum() / 1e3 / count, maxFanOutNanos.get() / 1e3,
+                queued, maxQueueDepth.get(), dropped.sum(), coalesced.sum(), disconnects.sum());
+    }
+
+    private void broadcast(Collection<Session> sessions, Supplier<EncodedMessage> encoder, Snapshot state) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        EncodedMessage encoded = encoder.get();
+        long encodedAt = System.nanoTime();
+        Pending pending = new Pending(encoded, state);
+        for (Session session : sessions) {
+            outbox(session).offer(pending);
+        }
+        long end = System.nanoTime();
+
+        broadcasts.increment();
+        record(totalEncodeNanos, maxEncodeNanos, encodedAt - start);
+        record(totalFanOutNanos, maxFanOutNanos, end - encodedAt);
+    }
+
+    private Outbox outbox(Session session) {
+        return outboxes.computeIfAbsent(session, Outbox::new);
+    }
+
+    private static void record(LongAdder total, AtomicLong max, long nanos) {
+        total.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * One session's queue. Messages are written one at a time: the next is written
+     * when Jetty reports the last one done, which may happen before write returns.
+     */
+    private final class Outbox implements WriteCallback {
+        private final Session session;
+        private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        private boolean inFlight;
+        // a thread is in pump's loop, and will write whatever is queued next
+        private boolean pumping;
+        private boolean closed;
+
+        private Outbox(Session session) {
+            this.session = session;
+        }
+
+        void offer(Pending pending) {
+            boolean disconnect = false;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() < maxPending) {
+                    queue.add(pending);
+                }
+                else if (policy == SlowConsumerPolicy.DISCONNECT) {
+                    dropped.add(queue.size() + 1);
+                    queue.clear();
+                    closed = true;
+                    disconnect = true;
+                }
+                else {
+                    coalesce(pending);
+                }
+                maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+            }
+            if (disconnect) {
+                disconnects.increment();
+                outboxes.remove(session, this);
+                try {
+                    // a close handshake would wait behind the stalled writes
+                    session.disconnect();
+                }
+                catch (IOException e) {
+                    // already gone
+                }
+                return;
+            }
+            pump();
+        }
+
+        /**
+         * Helper function. Makes room in a full queue; holding this outbox's lock
+         */
+        private void coalesce(Pending pending) {
+            if (pending.state() == null) {
+                // make room by dropping the oldest notification, or this one if there are none
+                Iterator<Pending> queued = queue.iterator();
+                while (queued.hasNext()) {
+                    if (queued.next().state() == null) {
+                        queued.remove();
+                        queue.add(pending);
+                        break;
+                    }
+                }
+                dropped.increment();
+                return;
+            }
+
+            int before = queue.size();
+            queue.removeIf(queued -> queued.state() != null);
+            // the snapshot after this update covers every update dropped
+            Pending snapshot = new Pending(pending.state().encoded(), pending.state());
+            if (pending.message() != snapshot.message()) {
+                dropped.increment();
+            }
+            dropped.add(before - queue.size());
+            while (queue.size() >= maxPending) {
+                queue.poll();
+                dropped.increment();
+            }
+            queue.add(snapshot);
+            coalesced.increment();
+        }
+
+        synchronized int depth() {
+            return queue.size();
+        }
+
+        synchronized void close() {
+            closed = true;
+            queue.clear();
+        }
+
+        private void pump() {
+            synchronized (this) {
+                if (pumping) {
+                    return;
+                }
+                pumping = true;
+            }
+            while (true) {
+                Pending next;
+                synchronized (this) {
+                    if (inFlight || closed || queue.isEmpty()) {
+                        pumping = false;
+                        return;
+                    }
+                    next = queue.poll();
+                    inFlight = true;
+                }
+                write(next.message());
+            }
+        }
+
+        private void write(EncodedMessage message) {
+            RemoteEndpoint remote;
+            try {
+                remote = session.getRemote();
+            }
+            catch (WebSocketException e) {
+                writeFailed(e);
+                return;
+            }
+            messagesSent.increment();
+            bytesSent.add(message.utf8().remaining());
+            if (remote instanceof WebSocketRemoteEndpoint jettyRemote) {
+                // a view of the shared bytes; writing it only moves the view's position
+                TextFrame frame = new TextFrame();
+                frame.setPayload(message.utf8().duplicate());
+                jettyRemote.uncheckedSendFrame(frame, this);
+            }
+            else {
+                remote.sendString(message.json(), this);
+            }
+        }
+
+        @Override
+        public void writeSuccess() {
+            synchronized (this) {
+                inFlight = false;
+                if (pumping) {
+                    return;
+                }
+            }
+            pump();
+        }
+
+        @Override
+        public void writeFailed(Throwable cause) {
+            // the session is closing; onClose forgets it
+            synchronized (this) {
+                inFlight = false;
+            }
+            close();
+            outboxes.remove(session, this);
+        }
+    }
+}
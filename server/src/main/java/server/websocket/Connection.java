@@ -0,0 +1,10 @@
+package server.websocket;
+
+import org.eclipse.jetty.websocket.api.Session;
+
+/**
+ * A session connected to a game, and how it wants to hear about moves
+ *
+ * @param moveDeltas whether the session gets a MOVE message after each move instead of a LOAD_GAME
+ */
+public record Connection(Session session, boolean moveDeltas) {}
@@ -0,0 +1,65 @@
+package server.websocket;
+
+import org.eclipse.jetty.websocket.api.Session;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The sessions connected to each game. A game's sessions are only changed and read
+ * on that game's executor, so the map for each game needs no locking of its own.
+ */
+public class ConnectionManager {
+
+    private final Map<Integer, Map<Session, Connection>> games = new ConcurrentHashMap<>();
+    // which game each session is connected to, for cleaning up when it closes
+    private final Map<Session, Integer> gameOfSession = new ConcurrentHashMap<>();
+
+    /**
+     * Connects a session to a game, replacing how it was connected before
+     *
+     * @return the game the session was connected to before, if it was a different one, or null
+     */
+    public Integer add(int gameID, Connection connection) {
+        games.computeIfAbsent(gameID, id -> new LinkedHashMap<>()).put(connection.session(), connection);
+        Integer previous = gameOfSession.put(connection.session(), gameID);
+        return previous == null || previous == gameID ? null : previous;
+    }
+
+    public void remove(int gameID, Session session) {
+        Map<Session, Connection> connections = games.get(gameID);
+        if (connections != null) {
+            connections.remove(session);
+            if (connections.isEmpty()) {
+                games.remove(gameID);
+            }
+        }
+        gameOfSession.remove(session, gameID);
+    }
+
+    /**
+     * @return the game the session is connected to, or null
+     */
+    public Integer gameOf(Session session) {
+        return gameOfSession.get(session);
+    }
+
+    /**
+     * @return the connections to a game
+     */
+    public Collection<Connection> connections(int gameID) {
+        Map<Session, Connection> connections = games.get(gameID);
+        return connections == null ? List.of() : connections.values();
+    }
+
+    /**
+     * @return how the session is connected to a game, or null if it isn't
+     */
+    public Connection get(int gameID, Session session) {
+        Map<Session, Connection> connections = games.get(gameID);
+        return connections == null ? null : connections.get(session);
+    }
+}
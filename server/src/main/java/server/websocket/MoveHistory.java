@@ -0,0 +1,90 @@
+package server.websocket;
+
+import chess.ChessGame;
+import websocket.messages.MoveMessage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A game's most recent MOVE messages, kept in a fixed-size ring so a client that
+ * reconnects can be sent just the moves it missed. Only touched on the game's
+ * executor, so it needs no locking of its own.
+ */
+public class MoveHistory {
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final MoveMessage[] ring;
+    // how many messages are held, at most the ring's length
+    private int size;
+    // where the next message goes
+    private int next;
+
+    public MoveHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.ring = new MoveMessage[capacity];
+    }
+
+    /**
+     * Remembers a move, forgetting the oldest one if the ring is full. A move that
+     * doesn't follow the last one starts the history over.
+     */
+    public void add(MoveMessage move) {
+        if (size > 0 && move.getSeq() != latest().getSeq() + 1) {
+            clear();
+        }
+        ring[next] = move;
+        next = (next + 1) % ring.length;
+        size = Math.min(size + 1, ring.length);
+    }
+
+    /**
+     * The moves a client needs to catch up with the game
+     *
+     * @param lastSeen the sequence number of the last move the client has, 0 for none
+     * @param game the game as it is now
+     * @return the moves after lastSeen, oldest first and empty if the client is up to date,
+     * or null if they aren't all here and the client needs the whole game
+     */
+    public List<MoveMessage> since(int lastSeen, ChessGame game) {
+        int current = game.getMoveCount();
+        if (lastSeen == current) {
+            return List.of();
+        }
+        if (lastSeen > current || size == 0) {
+            return null;
+        }
+        MoveMessage latest = latest();
+        // the game was changed some other way since the last move here
+        if (latest.getSeq() != current || latest.getHash() != game.getZobristKey()) {
+            return null;
+        }
+        int missed = current - lastSeen;
+        if (missed > size) {
+            return null;
+        }
+        List<MoveMessage> moves = new ArrayList<>(missed);
+        for (int i = missed; i > 0; i--) {
+            moves.add(ring[Math.floorMod(next - i, ring.length)]);
+        }
+        return moves;
+    }
+
+    public void clear() {
+        Arrays.fill(ring, null);
+        size = 0;
+        next = 0;
+    }
+
+    private MoveMessage latest() {
+        return ring[Math.floorMod(next - 1, ring.length)];
+    }
+}
@@ -0,0 +1,288 @@
+package server.websocket;
+
+import chess.ChessGame;
+import chess.ChessJson;
+import chess.ChessMove;
+import chess.Move;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import model.AuthData;
+import model.GameData;
+import model.GameSummary;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
+import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+import service.GameExecutor;
+import service.GameService;
+import websocket.commands.UserGameCommand;
+import websocket.messages.ErrorMessage;
+import websocket.messages.MoveMessage;
+import websocket.messages.NotificationMessage;
+import websocket.messages.ServerMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The /ws gameplay endpoint. Each command is handled on its game's
+ * {@link GameExecutor}, so a game's commands, and the messages they send,
+ * happen one at a time in the order they arrived, while other games carry on
+ * in parallel.
+ * <p>
+ * After a move, clients get the whole game in a LOAD_GAME unless they connected
+ * with moveDeltas, in which case they get just the move in a MOVE message. A client
+ * that finds a gap in the MOVE sequence numbers sends CONNECT again for a LOAD_GAME.
+ * <p>
+ * A client that reconnects with the sequence number of the last move it has is sent
+ * only the moves it missed, from the game's {@link MoveHistory}, and the others in
+ * the game aren't told it joined again. If the history no longer goes back that far
+ * it gets a LOAD_GAME instead. A game's history is dropped once nobody is connected.
+ */
+@WebSocket
+public class WebSocketHandler {
+
+    private static final Gson GSON = ChessJson.GSON;
+
+    private final GameService gameService = new GameService();
+    private final GameExecutor executor = GameExecutor.getInstance();
+    private final ConnectionManager connections = new ConnectionManager();
+    private final Map<Integer, MoveHistory> histories = new ConcurrentHashMap<>();
+    private final Broadcaster broadcaster;
+
+    public WebSocketHandler() {
+        this(new Broadcaster());
+    }
+
+    /**
+     * @param broadcaster sends messages, with its policy for sessions that fall behind
+     */
+    public WebSocketHandler(Broadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @OnWebSocketMessage
+    public void onMessage(Session session, String text) {
+        UserGameCommand command;
+        try {
+            command = GSON.fromJson(text, UserGameCommand.class);
+        }
+        catch (JsonParseException e) {
+            send(session, new ErrorMessage("Error: Unreadable command."));
+            return;
+        }
+        if (command == null || command.getCommandType() == null || command.getGameID() == null) {
+            send(session, new ErrorMessage("Error: A command type and game ID are required."));
+            return;
+        }
+        executor.execute(command.getGameID(), () -> handle(session, command));
+    }
+
+    /**
+     * @return how many broadcasts were sent and how long encoding and fanning them out took
+     */
+    public Broadcaster.Stats broadcastStats() {
+        return broadcaster.stats();
+    }
+
+    @OnWebSocketClose
+    public void onClose(Session session, int statusCode, String reason) {
+        broadcaster.closed(session);
+        Integer gameID = connections.gameOf(session);
+        if (gameID != null) {
+            executor.execute(gameID, () -> disconnect(gameID, session));
+        }
+    }
+
+    private void handle(Session session, UserGameCommand command) {
+        AuthData auth = new AuthData(command.getAuthToken(), null);
+        int gameID = command.getGameID();
+        try {
+            switch (command.getCommandType()) {
+                case CONNECT -> connect(session, auth, gameID, command.wantsMoveDeltas(), command.getLastSeen());
+                case MAKE_MOVE -> makeMove(session, auth, gameID, command.getMove());
+                case LEAVE -> leave(session, auth, gameID);
+                case RESIGN -> resign(session, auth, gameID);
+            }
+        }
+        catch (Exception e) {
+            String msg = e.getMessage();
+            send(session, new ErrorMessage(msg != null ? msg : "Error: " + e));
+        }
+    }
+
+    private void connect(Session session, AuthData auth, int gameID, boolean moveDeltas, Integer lastSeen)
+            throws Exception {
+        String user = gameService.getUsername(auth);
+        GameData game = gameService.getGame(auth, gameID);
+
+        Integer previous = connections.add(gameID, new Connection(session, moveDeltas));
+        if (previous != null) {
+            executor.execute(previous, () -> disconnect(previous, session));
+        }
+        if (!session.isOpen()) {
+            // closed before this ran, so onClose found nothing to remove
+            disconnect(gameID, session);
+            return;
+        }
+
+        if (lastSeen != null) {
+            resume(session, gameID, game.game(), lastSeen);
+            return;
+        }
+
+        String role;
+        if (user.equals(game.whiteUsername())) {
+            role = "the white player";
+        } else if (user.equals(game.blackUsername())) {
+            role = "the black player";
+        } else {role = "an observer";}
+
+        broadcaster.send(session, new Broadcaster.Snapshot(game.game()));
+        broadcast(gameID, session, false, new NotificationMessage(user + " joined the game as " + role + "."));
+    }
+
+    private void makeMove(Session session, AuthData auth, int gameID, ChessMove move) throws Exception {
+        String user = gameService.getUsername(auth);
+        GameData game = gameService.makeMove(auth, gameID, move);
+
+        broadcastMove(gameID, session, game.game());
+        broadcast(gameID, session, false, new NotificationMessage(user + " moved " + Move.toString(Move.fromChessMove(move)) + "."));
+
+        String status = describeStatus(game);
+        if (status != null) {
+            broadcast(gameID, session, true, new NotificationMessage(status));
+        }
+    }
+
+    private void resign(Session session, AuthData auth, int gameID) throws Exception {
+        String user = gameService.getUsername(auth);
+        GameSummary.Status result = gameService.resign(auth, gameID);
+
+        String winner = result == GameSummary.Status.WHITE_WON ? "White" : "Black";
+        broadcast(gameID, session, true, new NotificationMessage(user + " resigned. " + winner + " wins."));
+    }
+
+    private void leave(Session session, AuthData auth, int gameID) throws Exception {
+        String user = gameService.getUsername(auth);
+        gameService.leave(auth, gameID);
+
+        disconnect(gameID, session);
+        broadcast(gameID, session, false, new NotificationMessage(user + " left the game."));
+    }
+
+    /**
+     * Helper function. Catches a reconnecting session up with the moves it missed,
+     * or sends it the whole game if they aren't all in the history
+     */
+    private void resume(Session session, int gameID, ChessGame game, int lastSeen) {
+        MoveHistory history = histories.get(gameID);
+        List<MoveMessage> missed;
+        if (lastSeen == game.getMoveCount()) {
+            missed = List.of();
+        }
+        else {
+            missed = history == null ? null : history.since(lastSeen, game);
+        }
+        Broadcaster.Snapshot snapshot = new Broadcaster.Snapshot(game);
+        if (missed == null) {
+            broadcaster.send(session, snapshot);
+            return;
+        }
+        // encoded only if the session falls too far behind to take the moves
+        for (MoveMessage move : missed) {
+            broadcaster.send(session, move, snapshot);
+        }
+    }
+
+    /**
+     * Helper function. Removes a session from a game, and the game's history once
+     * nobody is left to resume
+     */
+    private void disconnect(int gameID, Session session) {
+        connections.remove(gameID, session);
+        if (connections.connections(gameID).isEmpty()) {
+            histories.remove(gameID);
+        }
+    }
+
+    /**
+     * Helper function. Describes check, checkmate or stalemate of the player to move
+     *
+     * @return the description, or null if none of them apply
+     */
+    private static String describeStatus(GameData game) {
+        ChessGame.TeamColor turn = game.game().getTeamTurn();
+        String player = turn == ChessGame.TeamColor.WHITE ? game.whiteUsername() : game.blackUsername();
+        if (player == null) {
+            player = turn == ChessGame.TeamColor.WHITE ? "White" : "Black";
+        }
+        if (game.game().isInCheckmate(turn)) {
+            return player + " is in checkmate.";
+        }
+        if (game.game().isInStalemate(turn)) {
+            return player + " is in stalemate.";
+        }
+        if (game.game().isInCheck(turn)) {
+            return player + " is in check.";
+        }
+        return null;
+    }
+
+    /**
+     * Helper function. Sends a message to every session connected to a game,
+     * encoding it only once
+     *
+     * @param sender the session whose command this answers
+     * @param includeSender whether the sender gets the message too, even if it isn't connected to the game
+     */
+    private void broadcast(int gameID, Session sender, boolean includeSender, ServerMessage message) {
+        List<Session> recipients = new ArrayList<>();
+        for (Connection connection : connections.connections(gameID)) {
+            if (connection.session() != sender) {
+                recipients.add(connection.session());
+            }
+        }
+        if (includeSender) {
+            recipients.add(sender);
+        }
+        broadcaster.broadcast(recipients, message);
+    }
+
+    /**
+     * Helper function. Sends a move to everyone in the game, and to the player who
+     * made it: a MOVE message to sessions that asked for them, and the whole game
+     * in a LOAD_GAME to the rest. Each kind is encoded once. While anyone is connected
+     * to the game, the move is kept in its history for sessions that reconnect.
+     */
+    private void broadcastMove(int gameID, Session sender, ChessGame game) {
+        List<Session> deltas = new ArrayList<>();
+        List<Session> snapshots = new ArrayList<>();
+        for (Connection connection : connections.connections(gameID)) {
+            if (connection.session() != sender) {
+                (connection.moveDeltas() ? deltas : snapshots).add(connection.session());
+            }
+        }
+        Connection senderConnection = connections.get(gameID, sender);
+        (senderConnection != null && senderConnection.moveDeltas() ? deltas : snapshots).add(sender);
+
+        MoveMessage move = MoveMessage.of(game);
+        // with nobody connected, disconnect would never drop the history
+        if (!connections.connections(gameID).isEmpty()) {
+            histories.computeIfAbsent(gameID, id -> new MoveHistory()).add(move);
+        }
+
+        // shared, so a game is encoded at most once however many sessions need it
+        Broadcaster.Snapshot snapshot = new Broadcaster.Snapshot(game);
+        if (!deltas.isEmpty()) {
+            broadcaster.broadcast(deltas, move, snapshot);
+        }
+        broadcaster.broadcast(snapshots, snapshot);
+    }
+
+    private void send(Session session, ServerMessage message) {
+        broadcaster.send(session, message);
+    }
+}
@@ -0,0 +1,124 @@
+package service;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the work on each game one task at a time, in the order it was submitted,
+ * while different games run in parallel on a shared pool of threads. Anything that
+ * reads a game, changes it and writes it back is run here, so two changes to the
+ * same game can't interleave, and no lock is held across games.
+ * <p>
+ * A game only has a queue while it has tasks waiting or running, so idle games cost nothing.
+ */
+public final class GameExecutor {
+
+    private final ExecutorService workers;
+    // a game is in this map exactly while one worker is draining its queue
+    private final ConcurrentHashMap<Integer, Queue<Runnable>> queues = new ConcurrentHashMap<>();
+
+    /**
+     * @param threads the number of games that can run at once
+     */
+    public GameExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "game-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static final class Holder {
+        // tasks spend much of their time waiting on the database, so use more threads than cores
+        private static final GameExecutor INSTANCE =
+                new GameExecutor(Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+    }
+
+    public static GameExecutor getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Queues a task to run after every task already queued for the same game
+     *
+     * @param gameID the game the task works on
+     * @param task the work to run
+     */
+    public void execute(int gameID, Runnable task) {
+        queues.compute(gameID, (id, queue) -> {
+            if (queue == null) {
+                Queue<Runnable> newQueue = new ConcurrentLinkedQueue<>();
+                newQueue.add(task);
+                workers.execute(() -> drain(id, newQueue));
+                return newQueue;
+            }
+            queue.add(task);
+            return queue;
+        });
+    }
+
+    /**
+     * Runs a task in its game's order and waits for it to finish
+     *
+     * @param gameID the game the task works on
+     * @param task the work to run; must not itself wait on the same game
+     * @return what the task returned
+     * @throws Exception whatever the task threw
+     */
+    public <T> T call(int gameID, Callable<T> task) throws Exception {
+        FutureTask<T> future = new FutureTask<>(task);
+        execute(gameID, future);
+        try {
+            return future.get();
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Helper function. Runs a game's tasks until its queue is empty, then retires the queue.
+     * Retiring and queueing both happen inside compute, so a task can't be added to a
+     * queue nobody is draining. If a task throws an Error the error goes on up, and a
+     * fresh drain takes over the queue so the game's later tasks still run.
+     */
+    private void drain(int gameID, Queue<Runnable> queue) {
+        boolean retired = false;
+        try {
+            while (true) {
+                Runnable task = queue.poll();
+                if (task == null) {
+                    if (queues.computeIfPresent(gameID, (id, current) -> current.isEmpty() ? null : current) == null) {
+                        retired = true;
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    task.run();
+                }
+                catch (RuntimeException e) {
+                    // one failed task mustn't stop the game's later ones
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+        }
+        finally {
+            if (!retired) {
+                workers.execute(() -> drain(gameID, queue));
+            }
+        }
+    }
+}
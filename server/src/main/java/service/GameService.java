@@ -1,21 +1,46 @@
 package service;
 
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
 import model.AuthData;
 import model.GameData;
+import model.GameSummary;
 import java.util.ArrayList;
 
 public class GameService extends Service {
 
     /**
-     * Gets a list of all games
+     * Gets the user a token belongs to
      *
      * @param authData The authentication data of the user
-     * @return ArrayList of all games
+     * @return The username
      */
-    public ArrayList<GameData> listGames(AuthData authData) throws Exception {
+    public String getUsername(AuthData authData) throws Exception {
+        return authenticate(authData.authToken());
+    }
+
+    /**
+     * Gets a summary of every game, without their boards
+     *
+     * @param authData The authentication data of the user
+     * @return ArrayList of all game summaries
+     */
+    public ArrayList<GameSummary> listGames(AuthData authData) throws Exception {
         authenticate(authData.authToken());
-        return gameDAO.listGames();
+        return gameDAO.listGameSummaries();
+    }
+
+    /**
+     * Gets one full game, board included
+     *
+     * @param authData The authentication data of the user
+     * @param gameID The game to get
+     * @return GameData for the game
+     */
+    public GameData getGame(AuthData authData, int gameID) throws Exception {
+        authenticate(authData.authToken());
+        return gameDAO.getGame(gameID);
     }
 
     /**
@@ -28,17 +53,13 @@ public class GameService extends Service {
     public GameData createGame(AuthData authData, GameData gameData) throws Exception {
         authenticate(authData.authToken());
         if (gameData.gameName() == null) {throw new BadRequestException("Error: Game name is required.");}
-        int id = gameDAO.listGames().size();
-
-        // Create new GameData and check that addition to db is successful
-        GameData newGame = new GameData(id, null, null, gameData.gameName(), new ChessGame());
-        if (gameDAO.createGame(newGame)) {return newGame;}
 
-        throw new BadRequestException("Error: Creating a game failed.");
+        // The db allocates the ID
+        return gameDAO.createGameWithNewID(new GameData(0, null, null, gameData.gameName(), new ChessGame()));
     }
 
     /**
-     * Creates a new game
+     * Adds the user to a game as a player. Run on the game's {@link GameExecutor}.
      *
      * @param authData The authentication data of the user
      * @param gameData Contains which team the player wants to join
@@ -48,8 +69,6 @@ public class GameService extends Service {
         String user = authenticate(authData.authToken());
         GameData game = gameDAO.getGame(gameData.gameID());
 
-        if (game == null) {throw new BadRequestException("Error: Unable to join. Game does not exist.");}
-
         if (gameData.whiteUsername() != null) {
             // If slot is empty, perform the join
             if (game.whiteUsername() == null) {
@@ -70,6 +89,82 @@ public class GameService extends Service {
         return false;
     }
 
+    /**
+     * Makes a move for the player whose turn it is. Only the move is written,
+     * appended to the game's move log. Run on the game's {@link GameExecutor}.
+     *
+     * @param authData The authentication data of the player
+     * @param gameID The game to make the move in
+     * @param move The move to make
+     * @return GameData with the move made
+     */
+    public GameData makeMove(AuthData authData, int gameID, ChessMove move) throws Exception {
+        String user = authenticate(authData.authToken());
+        GameData game = gameDAO.getGame(gameID);
+
+        if (move == null) {throw new BadRequestException("Error: A move is required.");}
+        if (!user.equals(game.whiteUsername()) && !user.equals(game.blackUsername())) {
+            throw new BadRequestException("Error: Observers cannot make moves.");
+        }
+        if (gameDAO.getResult(gameID) != null) {throw new BadRequestException("Error: The game is over.");}
+
+        String player = game.game().getTeamTurn() == ChessGame.TeamColor.WHITE ? game.whiteUsername() : game.blackUsername();
+        if (!user.equals(player)) {throw new BadRequestException("Error: It is not your turn.");}
+
+        try {
+            game.game().makeMove(move);
+        }
+        catch (InvalidMoveException e) {
+            throw new BadRequestException("Error: Invalid move.");
+        }
+        gameDAO.appendMove(gameID, game.game());
+        return game;
+    }
+
+    /**
+     * Ends a game with the player's opponent as the winner. Run on the game's {@link GameExecutor}.
+     *
+     * @param authData The authentication data of the player
+     * @param gameID The game to resign
+     * @return The game's result
+     */
+    public GameSummary.Status resign(AuthData authData, int gameID) throws Exception {
+        String user = authenticate(authData.authToken());
+        GameData game = gameDAO.getGame(gameID);
+
+        GameSummary.Status result;
+        if (user.equals(game.whiteUsername())) {
+            result = GameSummary.Status.BLACK_WON;
+        } else if (user.equals(game.blackUsername())) {
+            result = GameSummary.Status.WHITE_WON;
+        } else {throw new BadRequestException("Error: Observers cannot resign.");}
+
+        if (!gameDAO.setResult(gameID, result)) {throw new BadRequestException("Error: The game is over.");}
+        return result;
+    }
+
+    /**
+     * Takes a player out of a game, freeing their seat for someone else.
+     * Observers just stop observing. Run on the game's {@link GameExecutor}.
+     *
+     * @param authData The authentication data of the user
+     * @param gameID The game to leave
+     * @return GameData after the user left
+     */
+    public GameData leave(AuthData authData, int gameID) throws Exception {
+        String user = authenticate(authData.authToken());
+        GameData game = gameDAO.getGame(gameID);
+
+        if (user.equals(game.whiteUsername())) {
+            game = game.addWhite(null);
+            gameDAO.updateGame(game);
+        } else if (user.equals(game.blackUsername())) {
+            game = game.addBlack(null);
+            gameDAO.updateGame(game);
+        }
+        return game;
+    }
+
     /**
      * Used only for development. Clears the db of all GameData.
      * Remove this method before going into production.
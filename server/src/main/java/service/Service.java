@@ -3,6 +3,9 @@ package service;
 import dataaccess.*;
 
 public class Service {
+    // one cache for every service, so a token cached by one is seen by the rest
+    private static final CachingAuthDAO AUTH_CACHE = new CachingAuthDAO(new SqlAuthDAO());
+
     protected AuthDAO authDAO;
     protected UserDAO userDAO;
     protected GameDAO gameDAO;
@@ -13,7 +16,7 @@ public class Service {
 
     public Service() {
         //Sql-based code:
-        authDAO = new SqlAuthDAO();
+        authDAO = AUTH_CACHE;
         userDAO = new SqlUserDAO();
         gameDAO = new SqlGameDAO();
 
@@ -21,4 +24,11 @@ public class Service {
         userMemDAO = MemoryUserDAO.getInstance();
         gameMemDAO = MemoryGameDAO.getInstance();
     }
+
+    /**
+     * @return hit and miss counts of the auth token cache shared by all services
+     */
+    public static CachingAuthDAO.Stats authCacheStats() {
+        return AUTH_CACHE.stats();
+    }
 }
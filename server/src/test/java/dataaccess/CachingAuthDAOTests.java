@@ -0,0 +1,86 @@
+package dataaccess;
+
+import model.AuthData;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.TimeUnit;
+
+public class CachingAuthDAOTests {
+
+    private static final long TTL_MILLIS = 1000;
+
+    private MemoryAuthDAO store;
+    private CachingAuthDAO cache;
+    private long now;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        store = new MemoryAuthDAO();
+        store.createAuth(new AuthData("1234", "player1"));
+        store.createAuth(new AuthData("5678", "player2"));
+        now = 0;
+        cache = new CachingAuthDAO(store, TTL_MILLIS, 2, () -> now);
+    }
+
+    @Test
+    @DisplayName("Repeat Lookups Hit The Cache")
+    public void hits() throws Exception {
+        Assertions.assertEquals("player1", cache.getAuth("1234").username());
+        // gone from the store, but still cached
+        store.deleteAuth("1234");
+        Assertions.assertEquals("player1", cache.getAuth("1234").username());
+        Assertions.assertNull(cache.getAuth("abcd"));
+
+        CachingAuthDAO.Stats stats = cache.stats();
+        Assertions.assertEquals(1, stats.hits());
+        Assertions.assertEquals(2, stats.misses());
+    }
+
+    @Test
+    @DisplayName("Delete And Clear Invalidate")
+    public void invalidation() throws Exception {
+        cache.getAuth("1234");
+        cache.getAuth("5678");
+        cache.deleteAuth("1234");
+        Assertions.assertNull(cache.getAuth("1234"));
+
+        cache.clear();
+        Assertions.assertNull(cache.getAuth("5678"));
+        Assertions.assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    @DisplayName("Entries Expire And Are Bounded")
+    public void expiryAndBound() throws Exception {
+        cache.getAuth("1234");
+        now += TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS);
+        store.deleteAuth("1234");
+        Assertions.assertNull(cache.getAuth("1234"));
+        Assertions.assertEquals(1, cache.stats().expirations());
+
+        cache.createAuth(new AuthData("a", "player3"));
+        cache.createAuth(new AuthData("b", "player4"));
+        cache.getAuth("5678");
+        Assertions.assertEquals(2, cache.stats().size());
+        Assertions.assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    @DisplayName("Least Recently Used Is Evicted")
+    public void leastRecentlyUsed() throws Exception {
+        cache.getAuth("1234");
+        now += 10;
+        cache.getAuth("5678");
+        now += 10;
+        // 1234 is now the most recently used
+        cache.getAuth("1234");
+        now += 10;
+
+        cache.createAuth(new AuthData("a", "player3"));
+        store.deleteAuth("1234");
+        store.deleteAuth("5678");
+        Assertions.assertEquals("player1", cache.getAuth("1234").username());
+        Assertions.assertNull(cache.getAuth("5678"));
+        Assertions.assertEquals(1, cache.stats().evictions());
+    }
+}
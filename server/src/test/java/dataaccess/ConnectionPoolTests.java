@@ -0,0 +1,118 @@
+package dataaccess;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.function.Executable;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ConnectionPoolTests {
+
+    private List<FakeConnection> opened;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    public void setup() {
+        opened = new ArrayList<>();
+        pool = new ConnectionPool(this::open, 0, 2, 60_000, 100, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Closed Connections Are Reused")
+    public void reuse() throws Exception {
+        Connection first = pool.borrow();
+        first.prepareStatement("SELECT 1");
+        first.close();
+        Connection second = pool.borrow();
+        second.close();
+
+        Assertions.assertEquals(1, opened.size());
+        Assertions.assertTrue(first.isClosed());
+        Assertions.assertEquals(1, opened.get(0).statementsClosed);
+        Assertions.assertEquals(2, pool.stats().borrows());
+        Assertions.assertEquals(1, pool.stats().idle());
+    }
+
+    @Test
+    @DisplayName("Borrow Times Out At Max Size")
+    public void maxSize() throws Exception {
+        pool.borrow();
+        pool.borrow();
+
+        Executable third = () -> pool.borrow();
+
+        Assertions.assertThrows(SQLTimeoutException.class, third);
+        Assertions.assertEquals(1, pool.stats().timeouts());
+        Assertions.assertEquals(2, pool.stats().active());
+    }
+
+    @Test
+    @DisplayName("Invalid Connections Are Replaced")
+    public void validation() throws Exception {
+        pool.borrow().close();
+        opened.get(0).valid = false;
+        Thread.sleep(ConnectionPool.VALIDATION_BYPASS_MILLIS + 50);
+
+        pool.borrow().close();
+
+        Assertions.assertEquals(2, opened.size());
+        Assertions.assertTrue(opened.get(0).closed);
+        Assertions.assertEquals(1, pool.stats().validationFailures());
+    }
+
+    @Test
+    @DisplayName("Shutdown Closes Connections")
+    public void shutdown() throws Exception {
+        Connection borrowed = pool.borrow();
+        pool.borrow().close();
+        pool.shutdown();
+        borrowed.close();
+
+        Assertions.assertTrue(opened.get(0).closed);
+        Assertions.assertTrue(opened.get(1).closed);
+        Assertions.assertThrows(SQLException.class, () -> pool.borrow());
+    }
+
+    private Connection open() {
+        FakeConnection fake = new FakeConnection();
+        opened.add(fake);
+        return fake.proxy;
+    }
+
+    /**
+     * A connection that only tracks whether it and its statements were closed
+     */
+    private static class FakeConnection {
+        private boolean valid = true;
+        private boolean closed;
+        private int statementsClosed;
+        private final Connection proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "isValid" -> valid;
+                    case "isClosed" -> closed;
+                    case "getAutoCommit" -> true;
+                    case "close" -> {
+                        closed = true;
+                        yield null;
+                    }
+                    case "prepareStatement" -> Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                            new Class<?>[]{PreparedStatement.class}, (statement, statementMethod, statementArgs) -> {
+                                if (statementMethod.getName().equals("close")) {
+                                    statementsClosed++;
+                                }
+                                return null;
+                            });
+                    default -> null;
+                });
+    }
+}
@@ -0,0 +1,176 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import model.AuthData;
+import model.GameData;
+import model.GameSummary;
+import model.UserData;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class MemoryDAOTests {
+
+    private MemoryAuthDAO authDAO;
+    private MemoryUserDAO userDAO;
+    private MemoryGameDAO gameDAO;
+
+    @BeforeEach
+    public void setup() {
+        authDAO = new MemoryAuthDAO();
+        userDAO = new MemoryUserDAO();
+        gameDAO = new MemoryGameDAO();
+    }
+
+    @Test
+    @DisplayName("Lookups By Key")
+    public void lookups() throws Exception {
+        authDAO.createAuth(new AuthData("1234", "player1"));
+        userDAO.createUser(new UserData("player1", "password", "email@email.com"));
+
+        Assertions.assertEquals("player1", authDAO.getAuth("1234").username());
+        Assertions.assertNull(authDAO.getAuth("abcd"));
+        Assertions.assertEquals("email@email.com", userDAO.getUser("player1").email());
+        Assertions.assertNull(userDAO.getUser(null));
+        Assertions.assertThrows(DataAccessException.class, () -> authDAO.createAuth(new AuthData("1234", "player2")));
+        Assertions.assertThrows(DataAccessException.class, () -> userDAO.createUser(new UserData("player1", "x", "y")));
+    }
+
+    @Test
+    @DisplayName("Games Listed In ID Order")
+    public void gameOrder() throws Exception {
+        for (int id : new int[]{3, 1, 2}) {
+            Assertions.assertTrue(gameDAO.createGame(new GameData(id, null, null, "game " + id, new ChessGame())));
+        }
+        Assertions.assertFalse(gameDAO.createGame(new GameData(1, null, null, "again", new ChessGame())));
+
+        Assertions.assertEquals(List.of(1, 2, 3), gameDAO.listGames().stream().map(GameData::gameID).toList());
+        Executable noGame = () -> gameDAO.updateGame(new GameData(4, null, null, "game 4", new ChessGame()));
+        Assertions.assertThrows(DataAccessException.class, noGame);
+    }
+
+    @Test
+    @DisplayName("Summaries Show Status And Moves")
+    public void summaries() throws Exception {
+        // fool's mate
+        ChessGame mated = ChessGame.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        gameDAO.createGame(new GameData(1, "white", null, "open", new ChessGame()));
+        gameDAO.createGame(new GameData(2, "white", "black", "over", mated));
+
+        List<GameSummary> summaries = gameDAO.listGameSummaries();
+        Assertions.assertEquals(GameSummary.Status.WAITING_FOR_PLAYERS, summaries.get(0).status());
+        Assertions.assertEquals(GameSummary.Status.BLACK_WON, summaries.get(1).status());
+        Assertions.assertEquals("over", summaries.get(1).gameName());
+    }
+
+    @Test
+    @DisplayName("Mate Is Recorded When The Move Is")
+    public void mateRecorded() throws Exception {
+        gameDAO.createGame(new GameData(1, "white", "black", "fool's mate", new ChessGame()));
+        ChessGame game = gameDAO.getGame(1).game();
+        int[][] moves = {{2, 6, 3, 6}, {7, 5, 5, 5}, {2, 7, 4, 7}, {8, 4, 4, 8}};
+        for (int[] move : moves) {
+            Assertions.assertNull(gameDAO.getResult(1));
+            game.makeMove(new ChessMove(new ChessPosition(move[0], move[1]), new ChessPosition(move[2], move[3]), null));
+            gameDAO.appendMove(1, game);
+        }
+
+        Assertions.assertEquals(GameSummary.Status.BLACK_WON, gameDAO.getResult(1));
+        GameSummary summary = gameDAO.listGameSummaries().get(0);
+        Assertions.assertEquals(GameSummary.Status.BLACK_WON, summary.status());
+        Assertions.assertEquals(4, summary.moveCount());
+        Assertions.assertFalse(gameDAO.setResult(1, GameSummary.Status.WHITE_WON));
+    }
+
+    @Test
+    @DisplayName("Games Read Are Copies")
+    public void copies() throws Exception {
+        ChessGame game = new ChessGame();
+        gameDAO.createGame(new GameData(1, "white", "black", "game", game));
+        ChessGame read = gameDAO.getGame(1).game();
+
+        // neither the caller's game nor one read back is the stored one
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        read.makeMove(new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null));
+        Assertions.assertEquals(0, gameDAO.getGame(1).game().getMoveCount());
+
+        gameDAO.appendMove(1, read);
+        Assertions.assertEquals(read.toFen(), gameDAO.getGame(1).game().toFen());
+        Assertions.assertNotSame(gameDAO.getGame(1).game(), gameDAO.getGame(1).game());
+    }
+
+    @Test
+    @DisplayName("Resigned Games Are Over")
+    public void results() throws Exception {
+        gameDAO.createGame(new GameData(1, "white", "black", "resigned", new ChessGame()));
+        Assertions.assertNull(gameDAO.getResult(1));
+
+        Assertions.assertTrue(gameDAO.setResult(1, GameSummary.Status.BLACK_WON));
+        Assertions.assertFalse(gameDAO.setResult(1, GameSummary.Status.WHITE_WON));
+        Assertions.assertEquals(GameSummary.Status.BLACK_WON, gameDAO.getResult(1));
+        Assertions.assertEquals(GameSummary.Status.BLACK_WON, gameDAO.listGameSummaries().get(0).status());
+        Assertions.assertThrows(DataAccessException.class, () -> gameDAO.getResult(2));
+    }
+
+    @Test
+    @DisplayName("Allocated Game IDs Are Unique")
+    public void allocatedIDs() throws Exception {
+        gameDAO.createGame(new GameData(2, null, null, "chosen", new ChessGame()));
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<GameData>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(pool.submit(() -> gameDAO.createGameWithNewID(new GameData(0, null, null, "new", new ChessGame()))));
+        }
+        Set<Integer> ids = new HashSet<>();
+        for (Future<GameData> future : futures) {
+            ids.add(future.get().gameID());
+        }
+        pool.shutdown();
+
+        Assertions.assertEquals(1000, ids.size());
+        Assertions.assertFalse(ids.contains(2));
+        Assertions.assertEquals(1001, gameDAO.listGames().size());
+
+        gameDAO.clear();
+        Assertions.assertEquals(1, gameDAO.createGameWithNewID(new GameData(0, null, null, "new", new ChessGame())).gameID());
+    }
+
+    @Test
+    @DisplayName("Concurrent Writers Lose Nothing")
+    public void concurrentWrites() throws Exception {
+        int threads = 8;
+        int perThread = 2000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            futures.add(pool.submit(() -> {
+                for (int i = base; i < base + perThread; i++) {
+                    userDAO.createUser(new UserData("user" + i, "password", "mail"));
+                    authDAO.createAuth(new AuthData("token" + i, "user" + i));
+                    gameDAO.createGame(new GameData(i, null, null, "game" + i, new ChessGame()));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        Assertions.assertEquals(threads * perThread, gameDAO.listGames().size());
+        for (int i = 0; i < threads * perThread; i++) {
+            Assertions.assertEquals("user" + i, authDAO.getAuth("token" + i).username());
+            Assertions.assertNotNull(userDAO.getUser("user" + i));
+        }
+    }
+}
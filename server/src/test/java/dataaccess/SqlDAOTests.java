@@ -1,6 +1,9 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.GameCodec;
 import com.google.gson.Gson;
 import model.AuthData;
 import model.GameData;
@@ -37,12 +40,15 @@ public class SqlDAOTests {
         try (var conn = DatabaseManager.getConnection()) {
             String clearAuth = "TRUNCATE TABLE auth";
             String clearGame = "TRUNCATE TABLE game";
+            String clearMoves = "TRUNCATE TABLE game_move";
             String clearUser = "TRUNCATE TABLE user";
 
             var pdStmt = conn.prepareStatement(clearAuth);
             pdStmt.executeUpdate();
             pdStmt = conn.prepareStatement(clearGame);
             pdStmt.executeUpdate();
+            pdStmt = conn.prepareStatement(clearMoves);
+            pdStmt.executeUpdate();
             pdStmt = conn.prepareStatement(clearUser);
             pdStmt.executeUpdate();
         }
@@ -51,6 +57,43 @@ public class SqlDAOTests {
         }
     }
 
+    //=========================Schema=======================
+    @Test
+    @DisplayName("Schema Is At Latest Version")
+    public void schemaVersion() throws Exception {
+        try (var conn = DatabaseManager.getConnection()) {
+            Assertions.assertEquals(SchemaMigrations.LATEST_VERSION, SchemaMigrations.currentVersion(conn));
+            Assertions.assertEquals(0, SchemaMigrations.migrate(conn));
+        }
+    }
+
+    @Test
+    @DisplayName("Unkeyed Duplicates Keep One Row")
+    public void keyDuplicates() throws Exception {
+        try (var conn = DatabaseManager.getConnection()) {
+            // back to the tables from before version 4, holding rows that share keys
+            conn.prepareStatement("ALTER TABLE user DROP PRIMARY KEY").executeUpdate();
+            conn.prepareStatement("DELETE FROM schema_version WHERE version >= 4").executeUpdate();
+            conn.prepareStatement("INSERT INTO user (username, password, email) VALUES "
+                    + "('player1', 'b', 'email'), ('player1', 'a', 'email'), ('player1', 'a', 'email'), "
+                    + "('player2', 'c', 'email'), ('player2', 'c', 'email')").executeUpdate();
+
+            Assertions.assertEquals(SchemaMigrations.LATEST_VERSION - 3, SchemaMigrations.migrate(conn));
+
+            var resultSet = conn.prepareStatement("SELECT username, password FROM user ORDER BY username").executeQuery();
+            Assertions.assertTrue(resultSet.next());
+            Assertions.assertEquals("player1", resultSet.getString("username"));
+            Assertions.assertEquals("a", resultSet.getString("password"));
+            Assertions.assertTrue(resultSet.next());
+            Assertions.assertEquals("player2", resultSet.getString("username"));
+            Assertions.assertFalse(resultSet.next());
+
+            // the key now stops new duplicates
+            Assertions.assertThrows(SQLException.class, () -> conn.prepareStatement(
+                    "INSERT INTO user (username, password, email) VALUES ('player2', 'd', 'email')").executeUpdate());
+        }
+    }
+
     //=========================AuthDAO=======================
     //------------CREATE AUTH positive & negative tests---------------
     @Test
@@ -165,13 +208,13 @@ public class SqlDAOTests {
             String white = resultSet.getString("whiteUsername");
             String black = resultSet.getString("blackUsername");
             String gameName = resultSet.getString("gameName");
-            String game = resultSet.getString("chessGame");
+            byte[] game = resultSet.getBytes("chessGameData");
             Assertions.assertEquals(1, id);
             Assertions.assertEquals("whitePlayer", white);
             Assertions.assertEquals("blackPlayer", black);
             Assertions.assertEquals("game 1", gameName);
-            String chessGame = gson.toJson(new ChessGame());
-            Assertions.assertEquals(chessGame, game);
+            Assertions.assertArrayEquals(GameCodec.encode(new ChessGame()), game);
+            Assertions.assertNull(resultSet.getString("chessGame"));
         }
         catch (SQLException e) {
             throw new DataAccessException(e.getMessage());
@@ -226,6 +269,23 @@ public class SqlDAOTests {
         Assertions.assertEquals("whitePlayer", game.whiteUsername());
         Assertions.assertEquals("blackPlayer", game.blackUsername());
         Assertions.assertEquals("game 1", game.gameName());
+        Assertions.assertEquals(game1.game().getBoard(), game.game().getBoard());
+    }
+
+    @Test
+    @DisplayName("JSON Rows Migrate To Binary")
+    public void migrateJsonRow() throws Exception {
+        new SqlGameDAO(SqlGameDAO.StorageMode.JSON).createGame(game1);
+
+        GameData game = gameDAO.getGame(1);
+        Assertions.assertEquals(game1.game().getBoard(), game.game().getBoard());
+
+        try (var conn = DatabaseManager.getConnection()) {
+            var resultSet = conn.prepareStatement("SELECT chessGame, chessGameData FROM game WHERE gameID = 1").executeQuery();
+            resultSet.next();
+            Assertions.assertNull(resultSet.getString("chessGame"));
+            Assertions.assertArrayEquals(GameCodec.encode(game1.game()), resultSet.getBytes("chessGameData"));
+        }
     }
 
     @Test
@@ -291,6 +351,55 @@ public class SqlDAOTests {
         Assertions.assertThrows(DataAccessException.class, noGame);
     }
 
+    //------------APPEND MOVE positive & negative tests---------------
+    @Test
+    @DisplayName("Moves Replay From Log And Snapshot")
+    public void appendMoves() throws Exception {
+        gameDAO.createGame(game1);
+        ChessGame game = new ChessGame();
+        // knights out and back, past one snapshot
+        int[][] knightMoves = {{1, 2, 3, 3}, {8, 2, 6, 3}, {3, 3, 1, 2}, {6, 3, 8, 2}};
+        int moveCount = SqlGameDAO.SNAPSHOT_INTERVAL + 3;
+        for (int i = 0; i < moveCount; i++) {
+            int[] m = knightMoves[i % 4];
+            game.makeMove(new ChessMove(new ChessPosition(m[0], m[1]), new ChessPosition(m[2], m[3]), null));
+            gameDAO.appendMove(1, game);
+        }
+
+        ChessGame stored = gameDAO.getGame(1).game();
+        Assertions.assertEquals(game.getBoard(), stored.getBoard());
+        Assertions.assertEquals(game.getTeamTurn(), stored.getTeamTurn());
+        Assertions.assertEquals(game.getMoveHistory(), gameDAO.getMoves(1));
+        Assertions.assertEquals(game.getMoveHistory(), gameDAO.listGames().get(0).game().getMoveHistory());
+
+        try (var conn = DatabaseManager.getConnection()) {
+            var resultSet = conn.prepareStatement("SELECT snapshotSeq FROM game WHERE gameID = 1").executeQuery();
+            resultSet.next();
+            Assertions.assertEquals(SqlGameDAO.SNAPSHOT_INTERVAL, resultSet.getInt("snapshotSeq"));
+            resultSet = conn.prepareStatement("SELECT COUNT(*) FROM game_move WHERE gameID = 1").executeQuery();
+            resultSet.next();
+            Assertions.assertEquals(moveCount, resultSet.getInt(1));
+        }
+        catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("Move Cannot Be Recorded Twice")
+    public void appendMoveTwice() throws Exception {
+        gameDAO.createGame(game1);
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        gameDAO.appendMove(1, game);
+
+        Executable duplicate = () -> gameDAO.appendMove(1, game);
+        Executable noGame = () -> gameDAO.appendMove(2, game);
+
+        Assertions.assertThrows(DataAccessException.class, duplicate);
+        Assertions.assertThrows(DataAccessException.class, noGame);
+    }
+
     //------------CLEAR test------------------------------------------
     @Test
     @DisplayName("Clear Games Works")
@@ -0,0 +1,233 @@
+package server.websocket;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.common.LogicalConnection;
+import org.eclipse.jetty.websocket.common.WebSocketRemoteEndpoint;
+import org.junit.jupiter.api.*;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.NotificationMessage;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+public class BroadcasterTests {
+
+    /**
+     * A session whose writes are recorded. A stalled socket never finishes a write.
+     * A Jetty socket writes through a real {@link WebSocketRemoteEndpoint}, recording
+     * the frames it passes on.
+     */
+    private static class FakeSocket {
+        final List<String> sent = new ArrayList<>();
+        final List<ByteBuffer> payloads = new ArrayList<>();
+        final List<WriteCallback> pending = new ArrayList<>();
+        final boolean stalled;
+        boolean disconnected;
+        final Session session;
+
+        FakeSocket(boolean stalled) {
+            this(stalled, false);
+        }
+
+        FakeSocket(boolean stalled, boolean jetty) {
+            this.stalled = stalled;
+            RemoteEndpoint remote;
+            if (jetty) {
+                LogicalConnection connection = (LogicalConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[]{LogicalConnection.class}, (proxy, method, args) -> null);
+                remote = new WebSocketRemoteEndpoint(connection, (frame, callback, batchMode) -> {
+                    payloads.add(frame.getPayload());
+                    sent.add(StandardCharsets.UTF_8.decode(frame.getPayload().duplicate()).toString());
+                    written(callback);
+                });
+            }
+            else {
+                remote = (RemoteEndpoint) Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[]{RemoteEndpoint.class}, (proxy, method, args) -> {
+                            if (method.getName().equals("sendString")) {
+                                sent.add((String) args[0]);
+                                written((WriteCallback) args[1]);
+                            }
+                            return null;
+                        });
+            }
+            session = (Session) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Session.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getRemote" -> remote;
+                        case "isOpen" -> !disconnected;
+                        case "disconnect" -> {
+                            disconnected = true;
+                            yield null;
+                        }
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> null;
+                    });
+        }
+
+        private void written(WriteCallback callback) {
+            if (stalled) {
+                pending.add(callback);
+            }
+            else {
+                callback.writeSuccess();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Broadcast Encodes Once")
+    public void encodeOnce() {
+        Broadcaster broadcaster = new Broadcaster();
+        List<FakeSocket> sockets = List.of(new FakeSocket(false), new FakeSocket(false), new FakeSocket(false));
+
+        broadcaster.broadcast(sockets.stream().map(socket -> socket.session).toList(), new LoadGameMessage(new ChessGame()));
+
+        String first = sockets.get(0).sent.get(0);
+        for (FakeSocket socket : sockets) {
+            // the very same string, not three equal ones
+            Assertions.assertSame(first, socket.sent.get(0));
+        }
+        Assertions.assertTrue(first.contains("\"game\""));
+
+        Broadcaster.Stats stats = broadcaster.stats();
+        Assertions.assertEquals(1, stats.broadcasts());
+        Assertions.assertEquals(3, stats.messagesSent());
+        Assertions.assertEquals(3L * first.getBytes(StandardCharsets.UTF_8).length, stats.bytesSent());
+        Assertions.assertTrue(stats.maxEncodeMicros() > 0);
+    }
+
+    @Test
+    @DisplayName("Encoded Buffer Is Shared Read Only")
+    public void sharedBuffer() {
+        Broadcaster.EncodedMessage encoded = Broadcaster.EncodedMessage.encode(new NotificationMessage("white moved e2e4."));
+
+        Assertions.assertTrue(encoded.utf8().isReadOnly());
+        Assertions.assertEquals(encoded.json(), StandardCharsets.UTF_8.decode(encoded.utf8().duplicate()).toString());
+    }
+
+    @Test
+    @DisplayName("Jetty Frames Share The Encoded Buffer")
+    public void jettyFrames() {
+        Broadcaster broadcaster = new Broadcaster();
+        List<FakeSocket> sockets = List.of(new FakeSocket(false, true), new FakeSocket(false, true));
+        Broadcaster.Snapshot snapshot = new Broadcaster.Snapshot(new ChessGame());
+
+        broadcaster.broadcast(sockets.stream().map(socket -> socket.session).toList(), snapshot);
+
+        ByteBuffer shared = snapshot.encoded().utf8();
+        ByteBuffer first = sockets.get(0).payloads.get(0);
+        ByteBuffer second = sockets.get(1).payloads.get(0);
+        for (ByteBuffer payload : List.of(first, second)) {
+            // a read-only view of the shared bytes; a copy, or a second encoding, would be writable
+            Assertions.assertNotSame(shared, payload);
+            Assertions.assertTrue(payload.isReadOnly());
+            Assertions.assertEquals(shared, payload);
+        }
+        Assertions.assertNotSame(first, second);
+
+        // the socket writing one view leaves the others, and the shared buffer, where they were
+        first.position(first.limit());
+        Assertions.assertEquals(0, second.position());
+        Assertions.assertEquals(0, shared.position());
+        Assertions.assertTrue(sockets.get(1).sent.get(0).contains("LOAD_GAME"));
+    }
+
+    @Test
+    @DisplayName("Messages Are Written In Order")
+    public void order() {
+        Broadcaster broadcaster = new Broadcaster(Broadcaster.SlowConsumerPolicy.COALESCE, 4);
+        FakeSocket socket = new FakeSocket(false);
+
+        // writes finish inside sendString, so each one starts the next
+        for (int i = 0; i < 1000; i++) {
+            broadcaster.send(socket.session, new NotificationMessage("message " + i));
+        }
+
+        Assertions.assertEquals(1000, socket.sent.size());
+        Assertions.assertTrue(socket.sent.get(999).contains("message 999"));
+        Assertions.assertEquals(0, broadcaster.stats().dropped());
+        Assertions.assertEquals(0, broadcaster.stats().queuedMessages());
+    }
+
+    @Test
+    @DisplayName("Stalled Session Coalesces To Latest Snapshot")
+    public void coalesce() throws Exception {
+        Broadcaster broadcaster = new Broadcaster(Broadcaster.SlowConsumerPolicy.COALESCE, 3);
+        FakeSocket stalled = new FakeSocket(true);
+        FakeSocket healthy = new FakeSocket(false);
+        List<Session> sessions = List.of(stalled.session, healthy.session);
+        ChessGame game = new ChessGame();
+
+        broadcaster.send(stalled.session, new NotificationMessage("first"));
+        String[][] shuffle = {{"g1", "f3"}, {"g8", "f6"}, {"f3", "g1"}, {"f6", "g8"}};
+        for (int i = 0; i < 10; i++) {
+            String[] move = shuffle[i % 4];
+            game.makeMove(new ChessMove(square(move[0]), square(move[1]), null));
+            broadcaster.broadcast(sessions, new NotificationMessage("move " + (i + 1)), new Broadcaster.Snapshot(game));
+        }
+
+        Broadcaster.Stats stats = broadcaster.stats();
+        Assertions.assertEquals(10, healthy.sent.size());
+        Assertions.assertEquals(1, stalled.sent.size());
+        Assertions.assertEquals(1, stats.queuedMessages());
+        Assertions.assertEquals(3, stats.maxQueueDepth());
+        Assertions.assertEquals(3, stats.coalesced());
+        Assertions.assertEquals(12, stats.dropped());
+
+        // once the socket catches up it gets the latest game instead of the moves it missed
+        stalled.pending.get(0).writeSuccess();
+        Assertions.assertEquals(2, stalled.sent.size());
+        Assertions.assertTrue(stalled.sent.get(1).contains("LOAD_GAME"));
+        Assertions.assertTrue(stalled.sent.get(1).contains(game.toFen()));
+    }
+
+    @Test
+    @DisplayName("Stalled Session Is Disconnected")
+    public void disconnect() {
+        Broadcaster broadcaster = new Broadcaster(Broadcaster.SlowConsumerPolicy.DISCONNECT, 2);
+        FakeSocket stalled = new FakeSocket(true);
+
+        for (int i = 0; i < 4; i++) {
+            broadcaster.send(stalled.session, new NotificationMessage("message " + i));
+        }
+
+        Assertions.assertTrue(stalled.disconnected);
+        Broadcaster.Stats stats = broadcaster.stats();
+        Assertions.assertEquals(1, stats.disconnects());
+        Assertions.assertEquals(3, stats.dropped());
+        Assertions.assertEquals(0, stats.queuedMessages());
+    }
+
+    @Test
+    @DisplayName("Policy Is Read From Properties")
+    public void properties() {
+        FakeSocket stalled = new FakeSocket(true);
+        Properties props = new Properties();
+        props.setProperty("ws.slowConsumerPolicy", "disconnect");
+        props.setProperty("ws.maxPending", "1");
+        Broadcaster broadcaster = Broadcaster.fromProperties(props);
+
+        for (int i = 0; i < 3; i++) {
+            broadcaster.send(stalled.session, new NotificationMessage("message " + i));
+        }
+        Assertions.assertTrue(stalled.disconnected);
+
+        props.setProperty("ws.maxPending", "0");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Broadcaster.fromProperties(props));
+        Assertions.assertNotNull(Broadcaster.fromProperties(new Properties()));
+    }
+
+    private static ChessPosition square(String name) {
+        return new ChessPosition(name.charAt(1) - '0', name.charAt(0) - 'a' + 1);
+    }
+}
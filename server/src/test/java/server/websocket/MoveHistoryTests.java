@@ -0,0 +1,92 @@
+package server.websocket;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.*;
+import websocket.messages.MoveMessage;
+
+import java.util.List;
+
+public class MoveHistoryTests {
+
+    private static final String[][] SHUFFLE = {{"g1", "f3"}, {"g8", "f6"}, {"f3", "g1"}, {"f6", "g8"}};
+
+    private ChessGame game;
+
+    @BeforeEach
+    public void setup() {
+        game = new ChessGame();
+    }
+
+    @Test
+    @DisplayName("Replays Only The Missed Moves")
+    public void replay() throws InvalidMoveException {
+        MoveHistory history = new MoveHistory(8);
+        play(history, 6);
+
+        List<MoveMessage> missed = history.since(3, game);
+        Assertions.assertEquals(List.of(4, 5, 6), missed.stream().map(MoveMessage::getSeq).toList());
+
+        // the moves rebuild the game from the client's copy
+        ChessGame client = new ChessGame();
+        play(client, null, 3);
+        for (MoveMessage move : missed) {
+            Assertions.assertTrue(move.applyTo(client));
+        }
+        Assertions.assertEquals(game.toFen(), client.toFen());
+
+        Assertions.assertEquals(List.of(), history.since(6, game));
+    }
+
+    @Test
+    @DisplayName("Too Large A Gap Needs A Snapshot")
+    public void wrapped() throws InvalidMoveException {
+        MoveHistory history = new MoveHistory(4);
+        play(history, 10);
+
+        Assertions.assertEquals(List.of(7, 8, 9, 10), history.since(6, game).stream().map(MoveMessage::getSeq).toList());
+        Assertions.assertNull(history.since(5, game));
+        Assertions.assertNull(history.since(0, game));
+        // ahead of the server
+        Assertions.assertNull(history.since(11, game));
+    }
+
+    @Test
+    @DisplayName("A Game Changed Elsewhere Needs A Snapshot")
+    public void stale() throws InvalidMoveException {
+        MoveHistory history = new MoveHistory(8);
+        play(history, 4);
+        // a move the history never heard about
+        play(game, null, 1);
+
+        Assertions.assertNull(history.since(3, game));
+
+        // a move out of sequence starts the history over
+        play(history, 1);
+        Assertions.assertEquals(List.of(6), history.since(5, game).stream().map(MoveMessage::getSeq).toList());
+        Assertions.assertNull(history.since(4, game));
+    }
+
+    /**
+     * Helper function. Shuffles the knights, adding each move to the history if there is one
+     */
+    private void play(MoveHistory history, int moves) throws InvalidMoveException {
+        play(game, history, moves);
+    }
+
+    private static void play(ChessGame game, MoveHistory history, int moves) throws InvalidMoveException {
+        for (int i = 0; i < moves; i++) {
+            String[] move = SHUFFLE[game.getMoveCount() % 4];
+            game.makeMove(new ChessMove(square(move[0]), square(move[1]), null));
+            if (history != null) {
+                history.add(MoveMessage.of(game));
+            }
+        }
+    }
+
+    private static ChessPosition square(String name) {
+        return new ChessPosition(name.charAt(1) - '0', name.charAt(0) - 'a' + 1);
+    }
+}
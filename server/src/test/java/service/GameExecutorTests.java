@@ -0,0 +1,106 @@
+package service;
+
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class GameExecutorTests {
+
+    private GameExecutor executor;
+
+    @BeforeEach
+    public void setup() {
+        executor = new GameExecutor(4);
+    }
+
+    @Test
+    @DisplayName("Tasks Run In Order Per Game")
+    public void order() throws Exception {
+        int games = 8;
+        int perGame = 5000;
+        List<List<Integer>> seen = new ArrayList<>();
+        for (int g = 0; g < games; g++) {
+            seen.add(new ArrayList<>());
+        }
+        // one submitting thread per game, so each game's submission order is known
+        ExecutorService submitters = Executors.newFixedThreadPool(games);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int g = 0; g < games; g++) {
+            int gameID = g;
+            futures.add(submitters.submit(() -> {
+                for (int i = 0; i < perGame; i++) {
+                    int n = i;
+                    // unsynchronized on purpose: tasks for a game never overlap
+                    executor.execute(gameID, () -> seen.get(gameID).add(n));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        submitters.shutdown();
+        for (int g = 0; g < games; g++) {
+            executor.call(g, () -> null);
+        }
+
+        for (int g = 0; g < games; g++) {
+            List<Integer> list = seen.get(g);
+            Assertions.assertEquals(perGame, list.size());
+            for (int i = 0; i < perGame; i++) {
+                Assertions.assertEquals(i, list.get(i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Games Run In Parallel")
+    public void parallel() throws Exception {
+        // game 1 waits on game 2, so this only finishes if they run at the same time
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        executor.execute(1, () -> {
+            started.countDown();
+            try {
+                released.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(2, released::countDown);
+
+        Assertions.assertTrue(released.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("done", executor.call(1, () -> "done"));
+    }
+
+    @Test
+    @DisplayName("Call Throws The Task's Exception")
+    public void failures() throws Exception {
+        Assertions.assertThrows(BadRequestException.class,
+                () -> executor.call(1, () -> {throw new BadRequestException("Error: Invalid move.");}));
+        executor.execute(1, () -> {throw new IllegalStateException("expected by the test");});
+
+        // the game's later tasks still run
+        Assertions.assertEquals(2, executor.call(1, () -> 2));
+    }
+
+    @Test
+    @DisplayName("Games Survive A Task Throwing An Error")
+    public void errors() throws Exception {
+        executor.execute(1, () -> {throw new AssertionError("expected by the test");});
+        executor.execute(1, () -> {throw new StackOverflowError("expected by the test");});
+
+        // a dead queue would make call wait forever
+        Assertions.assertEquals(2, Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> executor.call(1, () -> 2)));
+        Assertions.assertEquals(3, executor.call(2, () -> 3));
+    }
+}
@@ -1,12 +1,16 @@
 package service;
 
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
 import model.AuthData;
 import model.GameData;
+import model.GameSummary;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.function.Executable;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public class GameServiceTests {
     private static GameService gameService;
@@ -55,7 +59,10 @@ public class GameServiceTests {
     @DisplayName("Create Game Works")
     public void gameCreation() throws Exception {
         GameData game3 = new GameData(-1, null, null, "Game3", null);
-        gameService.createGame(user1, game3);
+        GameData created = gameService.createGame(user1, game3);
+
+        Assertions.assertEquals(3, created.gameID());
+        Assertions.assertEquals("Game3", gameService.gameDAO.getGame(created.gameID()).gameName());
 
         Assertions.assertNotNull(gameService.listGames(user1).get(2));
         Assertions.assertEquals("Game3", gameService.listGames(user1).get(2).gameName());
@@ -92,6 +99,64 @@ public class GameServiceTests {
         Assertions.assertThrows(BadRequestException.class, gameIsFull);
     }
 
+    //------------MAKE MOVE positive & negative tests---------------
+    @Test
+    @DisplayName("Make Move Works")
+    public void makeMove() throws Exception {
+        gameService.joinGame(user1, new GameData(1, "this one", null, null, null));
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+
+        gameService.makeMove(user1, 1, move);
+
+        GameData stored = gameService.gameDAO.getGame(1);
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, stored.game().getTeamTurn());
+        Assertions.assertEquals(List.of(move), gameService.gameDAO.getMoves(1));
+    }
+
+    @Test
+    @DisplayName("Not Your Turn")
+    public void moveOutOfTurn() throws Exception {
+        gameService.joinGame(user1, new GameData(1, null, "this one", null, null));
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+
+        Executable outOfTurn = () -> gameService.makeMove(user1, 1, move);
+
+        Assertions.assertThrows(BadRequestException.class, outOfTurn);
+        Assertions.assertTrue(gameService.gameDAO.getMoves(1).isEmpty());
+    }
+
+    //------------RESIGN & LEAVE positive & negative tests---------------
+    @Test
+    @DisplayName("Resign Ends Game")
+    public void resign() throws Exception {
+        gameService.joinGame(user1, new GameData(1, "this one", null, null, null));
+
+        Assertions.assertEquals(GameSummary.Status.BLACK_WON, gameService.resign(user1, 1));
+        Assertions.assertEquals(GameSummary.Status.BLACK_WON, gameService.gameDAO.getResult(1));
+
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        Assertions.assertThrows(BadRequestException.class, () -> gameService.makeMove(user1, 1, move));
+        Assertions.assertThrows(BadRequestException.class, () -> gameService.resign(user1, 1));
+    }
+
+    @Test
+    @DisplayName("Observer Cannot Resign")
+    public void observerResign() {
+        Executable observerResign = () -> gameService.resign(user1, 1);
+
+        Assertions.assertThrows(BadRequestException.class, observerResign);
+    }
+
+    @Test
+    @DisplayName("Leave Frees Seat")
+    public void leave() throws Exception {
+        gameService.joinGame(user1, new GameData(1, null, "this one", null, null));
+
+        Assertions.assertNull(gameService.leave(user1, 1).blackUsername());
+        Assertions.assertNull(gameService.gameDAO.getGame(1).blackUsername());
+        Assertions.assertTrue(gameService.joinGame(user1, new GameData(1, null, "this one", null, null)));
+    }
+
     //------------CLEAR test---------------
     @Test
     @DisplayName("Testing Clear")
@@ -0,0 +1,262 @@
+package chess;
+
+/**
+ * Precomputed attack tables for the bitboard representation.
+ * Squares are indexed 0-63 with a1 = 0, h1 = 7 and h8 = 63.
+ * <p>
+ * Sliding pieces use magic bitboards: the blockers relevant to a square are
+ * multiplied by a per-square magic number, and the top bits of the product index a
+ * table holding the attack set for that blocker arrangement. The magic numbers below
+ * came from a fixed-seed random search; only the tables are built at class load.
+ */
+public final class Attacks {
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final long[] ROOK_MASK = new long[64];
+    private static final long[] ROOK_MAGIC = {
+            0x2080002080400010L, 0x00C0002001401000L, 0x2100110008402002L, 0x0880080081041000L,
+            0x0200020020041008L, 0x2300040008010012L, 0x0C00283004008201L, 0x0180010000407A80L,
+            0x0168800080400020L, 0x0010400040201000L, 0x1001002001001048L, 0x1001002408100100L,
+            0x0801000408010012L, 0x4001000209000400L, 0x08A20004C8020001L, 0x2002801145002280L,
+            0x0080860021004200L, 0x001000C009402002L, 0x00B0002004002800L, 0x100A808010020800L,
+            0x9400808004000800L, 0x0090808004000200L, 0x0000040010810208L, 0x2000020000448534L,
+            0x4104400480008033L, 0x0000810100204000L, 0x0440430900200010L, 0x4600240900100100L,
+            0x0804080100110004L, 0x0001000300080400L, 0x0004084400011002L, 0x0023040200008041L,
+            0x0580050043002080L, 0x0400804002802008L, 0x0001002001004010L, 0x0080200A02001040L,
+            0x600D480280802400L, 0x400B800201800C00L, 0x2408211004004208L, 0x0200211082000844L,
+            0x0020804010208000L, 0x5030004020104000L, 0xA042084080220010L, 0x4088080010008080L,
+            0x5002080100110004L, 0x2012002010040400L, 0x0040318210440008L, 0x0120941040820001L,
+            0x1000800100402100L, 0x0040002010004840L, 0x8108450020001900L, 0x0200204008120200L,
+            0x0080800C00180180L, 0x0885000400420900L, 0x230802011008C400L, 0x3801740891432200L,
+            0x0A00250212024082L, 0x0000882040001105L, 0x0042102082000A42L, 0xC401210810000501L,
+            0x0241001002480005L, 0x0081000400880241L, 0x0000009008024124L, 0x0048122980410402L
+    };
+    private static final int[] ROOK_SHIFT = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+    private static final long[] BISHOP_MASK = new long[64];
+    private static final long[] BISHOP_MAGIC = {
+            0x1862221006220044L, 0x2104A14202020060L, 0x2804081220444001L, 0x2102408900010001L,
+            0x0002021000040002L, 0x08C3100805004300L, 0x1084040124920050L, 0x8900440043382010L,
+            0x2401410802140040L, 0x0901200454208020L, 0x0000090216020541L, 0x1283844040800804L,
+            0x0521840420000803L, 0x0800010402400C40L, 0x0000408E10100404L, 0x0009810048420800L,
+            0x2004211004286808L, 0x13080A1001380080L, 0x0008801004220020L, 0x0024000802480800L,
+            0x1461001190400401L, 0x0020400200500440L, 0x0003000409019000L, 0x000C20820D011802L,
+            0x000804002164100CL, 0x00048400A0011404L, 0x5018110308044100L, 0x0048A00804010020L,
+            0x0007840000802000L, 0x8808A20075004220L, 0x8014040000822100L, 0x110C03000E251101L,
+            0x0081094820202010L, 0x0008041000044100L, 0x00C1202808940800L, 0x8108100821040400L,
+            0x1240010010010041L, 0x0810004080011000L, 0x00A20C0401804A00L, 0x40014C0020050500L,
+            0x5805082012042480L, 0x2004022144031000L, 0x2082002024204808L, 0x0800004200800800L,
+            0x0410020204100A02L, 0x80C1204080804101L, 0x0010104E01800042L, 0x000800810C400208L,
+            0x100080B008201210L, 0x8000440605112101L, 0x000202008C440040L, 0x9004002210442200L,
+            0x2032014088222045L, 0x0C00202222C20000L, 0x0140040820A50100L, 0x0222104C29024018L,
+            0x0200110121202004L, 0x0800104200B00802L, 0x0000401424020801L, 0x4000000004208840L,
+            0x0802E00040104100L, 0x03000020A0424080L, 0x0011C00408188121L, 0x0848020822040013L
+    };
+    private static final int[] BISHOP_SHIFT = new int[64];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    // squares strictly between two squares on a shared line, and the whole line through them
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final long INIT_NANOS;
+
+    static {
+        long start = System.nanoTime();
+        int[][] knightSteps = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        int[][] kingSteps = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+        for (int sq = 0; sq < 64; sq++) {
+            KNIGHT[sq] = stepAttacks(sq, knightSteps);
+            KING[sq] = stepAttacks(sq, kingSteps);
+            PAWN[ChessGame.TeamColor.WHITE.ordinal()][sq] = stepAttacks(sq, new int[][]{{1, -1}, {1, 1}});
+            PAWN[ChessGame.TeamColor.BLACK.ordinal()][sq] = stepAttacks(sq, new int[][]{{-1, -1}, {-1, 1}});
+        }
+
+        for (int sq = 0; sq < 64; sq++) {
+            ROOK_MASK[sq] = relevantBlockers(sq, ROOK_DIRECTIONS);
+            ROOK_SHIFT[sq] = 64 - Long.bitCount(ROOK_MASK[sq]);
+            ROOK_TABLE[sq] = buildTable(sq, ROOK_DIRECTIONS, ROOK_MASK[sq], ROOK_MAGIC[sq], ROOK_SHIFT[sq]);
+            BISHOP_MASK[sq] = relevantBlockers(sq, BISHOP_DIRECTIONS);
+            BISHOP_SHIFT[sq] = 64 - Long.bitCount(BISHOP_MASK[sq]);
+            BISHOP_TABLE[sq] = buildTable(sq, BISHOP_DIRECTIONS, BISHOP_MASK[sq], BISHOP_MAGIC[sq], BISHOP_SHIFT[sq]);
+        }
+
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                long bBit = 1L << b;
+                if (a == b) {
+                    continue;
+                }
+                int[][] directions = (rook(a, 0L) & bBit) != 0 ? ROOK_DIRECTIONS
+                        : (bishop(a, 0L) & bBit) != 0 ? BISHOP_DIRECTIONS : null;
+                if (directions != null) {
+                    long fromA = slideAll(a, bBit, directions);
+                    long fromB = slideAll(b, 1L << a, directions);
+                    BETWEEN[a][b] = fromA & fromB;
+                    LINE[a][b] = (slideAll(a, 0L, directions) & slideAll(b, 0L, directions)) | (1L << a) | bBit;
+                }
+            }
+        }
+        INIT_NANOS = System.nanoTime() - start;
+    }
+
+    private Attacks() {}
+
+    /**
+     * @param sq the knight's square
+     * @return every square a knight on sq attacks
+     */
+    public static long knight(int sq) {
+        return KNIGHT[sq];
+    }
+
+    /**
+     * @param sq the king's square
+     * @return every square a king on sq attacks
+     */
+    public static long king(int sq) {
+        return KING[sq];
+    }
+
+    /**
+     * @param color the pawn's team
+     * @param sq the pawn's square
+     * @return the (diagonal) squares a pawn of the given team attacks from sq
+     */
+    public static long pawn(ChessGame.TeamColor color, int sq) {
+        return PAWN[color.ordinal()][sq];
+    }
+
+    /**
+     * @param sq the rook's square
+     * @param occupied every occupied square on the board
+     * @return squares a rook on sq attacks, stopping at (and including) the first blocker in each direction
+     */
+    public static long rook(int sq, long occupied) {
+        return ROOK_TABLE[sq][(int) (((occupied & ROOK_MASK[sq]) * ROOK_MAGIC[sq]) >>> ROOK_SHIFT[sq])];
+    }
+
+    /**
+     * @param sq the bishop's square
+     * @param occupied every occupied square on the board
+     * @return squares a bishop on sq attacks, stopping at (and including) the first blocker in each direction
+     */
+    public static long bishop(int sq, long occupied) {
+        return BISHOP_TABLE[sq][(int) (((occupied & BISHOP_MASK[sq]) * BISHOP_MAGIC[sq]) >>> BISHOP_SHIFT[sq])];
+    }
+
+    /**
+     * @param sq the queen's square
+     * @param occupied every occupied square on the board
+     * @return squares a queen on sq attacks
+     */
+    public static long queen(int sq, long occupied) {
+        return rook(sq, occupied) | bishop(sq, occupied);
+    }
+
+    /**
+     * @return squares strictly between a and b if they share a rank, file or diagonal, otherwise 0
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * @return every square on the rank, file or diagonal through a and b, or 0 if they don't share one
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    /**
+     * @return how long building the attack tables took, in nanoseconds
+     */
+    public static long initNanos() {
+        return INIT_NANOS;
+    }
+
+    /**
+     * Fills the attack table of one square by walking the rays for every
+     * arrangement of blockers the square's mask allows
+     *
+     * @return the table indexed by (blockers * magic) >>> shift
+     */
+    private static long[] buildTable(int sq, int[][] directions, long mask, long magic, int shift) {
+        long[] table = new long[1 << Long.bitCount(mask)];
+        boolean[] filled = new boolean[table.length];
+
+        // Enumerate every subset of the mask (carry-rippler trick)
+        long blockers = 0L;
+        do {
+            long attacks = slideAll(sq, blockers, directions);
+            int index = (int) ((blockers * magic) >>> shift);
+            if (filled[index] && table[index] != attacks) {
+                throw new IllegalStateException("Bad magic number for square " + sq);
+            }
+            filled[index] = true;
+            table[index] = attacks;
+            blockers = (blockers - mask) & mask;
+        } while (blockers != 0);
+
+        return table;
+    }
+
+    // squares whose occupancy can change a slider's attacks (edge squares never block anything past them)
+    private static long relevantBlockers(int sq, int[][] directions) {
+        long mask = 0L;
+        for (int[] dir : directions) {
+            int row = sq / 8 + dir[0];
+            int col = sq % 8 + dir[1];
+            while (row + dir[0] >= 0 && row + dir[0] < 8 && col + dir[1] >= 0 && col + dir[1] < 8) {
+                mask |= 1L << (row * 8 + col);
+                row += dir[0];
+                col += dir[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long slideAll(int sq, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] dir : directions) {
+            attacks |= slide(sq, occupied, dir[0], dir[1]);
+        }
+        return attacks;
+    }
+
+    // walks one ray from sq until the edge of the board or the first occupied square
+    private static long slide(int sq, long occupied, int rowStep, int colStep) {
+        long attacks = 0L;
+        int row = sq / 8 + rowStep;
+        int col = sq % 8 + colStep;
+        while (row >= 0 && row < 8 && col >= 0 && col < 8) {
+            long bit = 1L << (row * 8 + col);
+            attacks |= bit;
+            if ((occupied & bit) != 0) {
+                break;
+            }
+            row += rowStep;
+            col += colStep;
+        }
+        return attacks;
+    }
+
+    // builds the attack set of a piece that moves a single step in each of the given directions
+    private static long stepAttacks(int sq, int[][] steps) {
+        long attacks = 0L;
+        for (int[] step : steps) {
+            int row = sq / 8 + step[0];
+            int col = sq % 8 + step[1];
+            if (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                attacks |= 1L << (row * 8 + col);
+            }
+        }
+        return attacks;
+    }
+}
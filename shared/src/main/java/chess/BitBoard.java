@@ -0,0 +1,309 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A 64-bit board representation kept alongside ChessBoard.
+ * <p>
+ * Holds one bitboard per piece (6 types x 2 teams), an occupancy mask per team, and
+ * a square-indexed mailbox for constant time lookups. Squares are indexed 0-63 with
+ * a1 (row 1, column 1) = 0 and h8 (row 8, column 8) = 63.
+ * <p>
+ * Each team's attacked-square map is cached. Changing a square marks the maps stale and
+ * the next query rebuilds them in one pass over the pieces, so any number of check or
+ * square-safety questions about the same position are single bit tests.
+ * <p>
+ * The Zobrist key of the pieces (see {@link Zobrist}) is updated with every put and remove.
+ */
+public class BitBoard {
+
+    public static final int EMPTY = -1;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long FILE_H = FILE_A << 7;
+
+    static {
+        for (int sq = 0; sq < 64; sq++) {
+            POSITIONS[sq] = new ChessPosition(sq / 8 + 1, sq % 8 + 1);
+        }
+    }
+
+    private final long[] pieces;
+    private final long[] teams;
+    private long occupied;
+    private final byte[] mailbox;
+    private final long[] attackMaps;
+    // bit per team, set while that team's attack map matches the board
+    private int validMaps;
+    private long zobristKey;
+
+    public BitBoard() {
+        pieces = new long[12];
+        teams = new long[2];
+        occupied = 0L;
+        mailbox = new byte[64];
+        Arrays.fill(mailbox, (byte) EMPTY);
+        attackMaps = new long[2];
+        validMaps = 0;
+        zobristKey = 0L;
+    }
+
+    /**
+     * Builds a bitboard holding the same pieces as the given board
+     *
+     * @param board the board to copy
+     */
+    public BitBoard(ChessBoard board) {
+        this();
+        for (int sq = 0; sq < 64; sq++) {
+            ChessPiece piece = board.getPiece(POSITIONS[sq]);
+            if (piece != null) {
+                put(sq, piece.getTeamColor(), piece.getPieceType());
+            }
+        }
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param other the bitboard to copy
+     */
+    public BitBoard(BitBoard other) {
+        pieces = other.pieces.clone();
+        teams = other.teams.clone();
+        occupied = other.occupied;
+        mailbox = other.mailbox.clone();
+        attackMaps = other.attackMaps.clone();
+        validMaps = other.validMaps;
+        zobristKey = other.zobristKey;
+    }
+
+    /**
+     * Creates a new ChessBoard holding the same pieces as this bitboard
+     *
+     * @return the equivalent ChessBoard
+     */
+    public ChessBoard toChessBoard() {
+        ChessBoard board = new ChessBoard();
+        for (int sq = 0; sq < 64; sq++) {
+            int code = mailbox[sq];
+            if (code != EMPTY) {
+                board.addPiece(POSITIONS[sq], new ChessPiece(colorOf(code), typeOf(code)));
+            }
+        }
+        return board;
+    }
+
+    /**
+     * @param color the piece's team
+     * @param type the piece's type
+     * @return the piece code (0-11) used to index piece bitboards
+     */
+    public static int code(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    /**
+     * @param code a piece code
+     * @return the team of the given piece code
+     */
+    public static ChessGame.TeamColor colorOf(int code) {
+        return COLORS[code / 6];
+    }
+
+    /**
+     * @param code a piece code
+     * @return the type of the given piece code
+     */
+    public static ChessPiece.PieceType typeOf(int code) {
+        return TYPES[code % 6];
+    }
+
+    /**
+     * @param position a position on the board
+     * @return the square index (0-63) of the position
+     */
+    public static int square(ChessPosition position) {
+        return (position.getRow() - 1) * 8 + (position.getColumn() - 1);
+    }
+
+    /**
+     * @param sq a square index (0-63)
+     * @return a shared, immutable ChessPosition for the square
+     */
+    public static ChessPosition position(int sq) {
+        return POSITIONS[sq];
+    }
+
+    /**
+     * Places a piece on a square, replacing whatever was there
+     *
+     * @param sq the square index
+     * @param color the piece's team
+     * @param type the piece's type
+     */
+    public void put(int sq, ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        remove(sq);
+        int code = code(color, type);
+        long bit = 1L << sq;
+        pieces[code] |= bit;
+        teams[color.ordinal()] |= bit;
+        occupied |= bit;
+        mailbox[sq] = (byte) code;
+        validMaps = 0;
+        zobristKey ^= Zobrist.piece(code, sq);
+    }
+
+    /**
+     * Empties a square
+     *
+     * @param sq the square index
+     */
+    public void remove(int sq) {
+        int code = mailbox[sq];
+        if (code == EMPTY) {
+            return;
+        }
+        long bit = ~(1L << sq);
+        pieces[code] &= bit;
+        teams[code / 6] &= bit;
+        occupied &= bit;
+        mailbox[sq] = (byte) EMPTY;
+        validMaps = 0;
+        zobristKey ^= Zobrist.piece(code, sq);
+    }
+
+    /**
+     * @param sq the square index
+     * @return the piece code on the square, or EMPTY
+     */
+    public int pieceAt(int sq) {
+        return mailbox[sq];
+    }
+
+    /**
+     * @return bitboard of every piece of the given team and type
+     */
+    public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[code(color, type)];
+    }
+
+    /**
+     * @return bitboard of every piece on the given team
+     */
+    public long occupancy(ChessGame.TeamColor color) {
+        return teams[color.ordinal()];
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    public long occupied() {
+        return occupied;
+    }
+
+    /**
+     * @return the Zobrist key of the pieces on the board, without side to move,
+     * castling or en passant
+     */
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * @param color the king's team
+     * @return the square index of the team's king, or EMPTY if it has none
+     */
+    public int kingSquare(ChessGame.TeamColor color) {
+        long king = pieces[code(color, ChessPiece.PieceType.KING)];
+        return king == 0 ? EMPTY : Long.numberOfTrailingZeros(king);
+    }
+
+    /**
+     * Finds every piece of the given team that attacks a square
+     *
+     * @param sq the square index being attacked
+     * @param by the attacking team
+     * @param occ the occupancy used to block sliding pieces
+     * @return bitboard of the attacking pieces
+     */
+    public long attackersOf(int sq, ChessGame.TeamColor by, long occ) {
+        ChessGame.TeamColor defender = by == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long queens = pieces(by, ChessPiece.PieceType.QUEEN);
+        return (Attacks.pawn(defender, sq) & pieces(by, ChessPiece.PieceType.PAWN))
+                | (Attacks.knight(sq) & pieces(by, ChessPiece.PieceType.KNIGHT))
+                | (Attacks.king(sq) & pieces(by, ChessPiece.PieceType.KING))
+                | (Attacks.rook(sq, occ) & (pieces(by, ChessPiece.PieceType.ROOK) | queens))
+                | (Attacks.bishop(sq, occ) & (pieces(by, ChessPiece.PieceType.BISHOP) | queens));
+    }
+
+    /**
+     * @param sq the square index being attacked
+     * @param by the attacking team
+     * @return true if any piece of the given team attacks the square
+     */
+    public boolean isAttacked(int sq, ChessGame.TeamColor by) {
+        return (attacks(by) & (1L << sq)) != 0;
+    }
+
+    /**
+     * Gets every square the given team attacks, whether or not it is occupied
+     *
+     * @param by the attacking team
+     * @return bitboard of attacked squares
+     */
+    public long attacks(ChessGame.TeamColor by) {
+        int team = by.ordinal();
+        if ((validMaps & (1 << team)) == 0) {
+            attackMaps[team] = buildAttacks(by);
+            validMaps |= 1 << team;
+        }
+        return attackMaps[team];
+    }
+
+    // one pass over the team's pieces; pawns are shifted as a set
+    private long buildAttacks(ChessGame.TeamColor by) {
+        long pawns = pieces(by, ChessPiece.PieceType.PAWN);
+        long map = by == ChessGame.TeamColor.WHITE
+                ? ((pawns & ~FILE_A) << 7) | ((pawns & ~FILE_H) << 9)
+                : ((pawns & ~FILE_A) >>> 9) | ((pawns & ~FILE_H) >>> 7);
+
+        long knights = pieces(by, ChessPiece.PieceType.KNIGHT);
+        while (knights != 0) {
+            map |= Attacks.knight(Long.numberOfTrailingZeros(knights));
+            knights &= knights - 1;
+        }
+        long queens = pieces(by, ChessPiece.PieceType.QUEEN);
+        long diagonal = pieces(by, ChessPiece.PieceType.BISHOP) | queens;
+        while (diagonal != 0) {
+            map |= Attacks.bishop(Long.numberOfTrailingZeros(diagonal), occupied);
+            diagonal &= diagonal - 1;
+        }
+        long straight = pieces(by, ChessPiece.PieceType.ROOK) | queens;
+        while (straight != 0) {
+            map |= Attacks.rook(Long.numberOfTrailingZeros(straight), occupied);
+            straight &= straight - 1;
+        }
+        long kings = pieces(by, ChessPiece.PieceType.KING);
+        while (kings != 0) {
+            map |= Attacks.king(Long.numberOfTrailingZeros(kings));
+            kings &= kings - 1;
+        }
+        return map;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {return true;}
+        if (!(o instanceof BitBoard that)) {return false;}
+        return Arrays.equals(pieces, that.pieces);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(zobristKey);
+    }
+}
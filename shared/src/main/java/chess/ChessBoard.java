@@ -1,6 +1,5 @@
 package chess;
 
-import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -11,6 +10,9 @@ import java.util.Objects;
  */
 public class ChessBoard {
     private ChessPiece[][] board;
+    // Bitboard mirror of the array, rebuilt lazily (Gson never fills transient fields)
+    private transient BitBoard bitBoard;
+
     public ChessBoard() {
         board = new ChessPiece[8][8];
     }
@@ -25,6 +27,15 @@ public class ChessBoard {
         int row = position.getRow() - 1;
         int col = position.getColumn() - 1;
         board[row][col] = piece;
+        if (bitBoard != null) {
+            int sq = row * 8 + col;
+            if (piece == null) {
+                bitBoard.remove(sq);
+            }
+            else {
+                bitBoard.put(sq, piece.getTeamColor(), piece.getPieceType());
+            }
+        }
     }
 
     /**
@@ -46,6 +57,7 @@ public class ChessBoard {
      */
     public void resetBoard() {
         board = new ChessPiece[8][8];
+        bitBoard = null;
         // Initialize white pieces
         board[0][0] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
         board[0][1] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
@@ -75,6 +87,50 @@ public class ChessBoard {
         }
     }
 
+    /**
+     * Builds a board from the piece placement field of a FEN string, e.g.
+     * {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR}. Pieces off their
+     * starting squares are marked as having moved.
+     *
+     * @param placement the piece placement, or a whole FEN string
+     * @return the board it describes
+     * @throws IllegalArgumentException if the placement is not valid FEN
+     */
+    public static ChessBoard fromFen(String placement) {
+        return Fen.loadBoard(placement.trim().split("\\s+")[0]);
+    }
+
+    /**
+     * @return the piece placement field of this board in FEN
+     */
+    public String toFen() {
+        return Fen.toPlacement(this);
+    }
+
+    /**
+     * Gets the bitboard view of this board. It is kept in sync with every
+     * addPiece call, so it must not be modified directly.
+     *
+     * @return the bitboard holding the same pieces as this board
+     */
+    public BitBoard getBitBoard() {
+        if (bitBoard == null) {
+            bitBoard = new BitBoard(this);
+        }
+        return bitBoard;
+    }
+
+    /**
+     * Gets the Zobrist key of the pieces on this board. It only covers piece
+     * placement; {@link ChessGame#getZobristKey()} adds the side to move,
+     * castling rights and en passant square.
+     *
+     * @return the 64-bit key of the board
+     */
+    public long getZobristKey() {
+        return getBitBoard().zobristKey();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {return true;}
@@ -84,7 +140,7 @@ public class ChessBoard {
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        return Long.hashCode(getZobristKey());
     }
 
     @Override
@@ -1,8 +1,10 @@
 package chess;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
 /**
  * For a class that can manage a chess game, making moves on a board
@@ -11,15 +13,49 @@ import java.util.Set;
  * signature of the existing methods.
  */
 public class ChessGame {
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    // Castling rights kept when a move starts or ends on each square
+    private static final int[] CASTLING_KEPT = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_KEPT, WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_KEPT[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_KEPT[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_KEPT[7] &= ~WHITE_KINGSIDE;
+        CASTLING_KEPT[56] &= ~BLACK_QUEENSIDE;
+        CASTLING_KEPT[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_KEPT[63] &= ~BLACK_KINGSIDE;
+    }
+
     private TeamColor teamTurn;
     private ChessBoard gameBoard;
     private ChessMove lastMove;
+    private int halfmoveClock;
+    private int fullmoveNumber;
+
+    // Undo records are reused between moves, only the first undoCount are live
+    private transient List<UndoState> undoStack;
+    private transient int undoCount;
+    // Every move played since the game started, including ones from before it was last stored
+    private transient MoveList history;
+    // Side to move, castling and en passant part of the Zobrist key; the board keeps the piece part
+    private transient long stateKey;
+    private transient boolean stateKeyValid;
 
     public ChessGame() {
         teamTurn = TeamColor.WHITE;
         gameBoard = new ChessBoard();
         gameBoard.resetBoard();
         lastMove = null;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        undoStack = new ArrayList<>();
+        undoCount = 0;
+        history = new MoveList();
     }
 
     /**
@@ -36,6 +72,7 @@ public class ChessGame {
      */
     public void setTeamTurn(TeamColor team) {
         teamTurn = team;
+        stateKeyValid = false;
     }
 
     /**
@@ -54,38 +91,39 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        ChessPiece piece = gameBoard.getPiece(startPosition);
         // If there is no piece, there are no moves
-        if (piece == null) {
+        if (gameBoard.getPiece(startPosition) == null) {
             return new HashSet<>();
         }
 
-        Collection<ChessMove> moves = piece.pieceMoves(gameBoard, startPosition);
-        Set<ChessMove> validMoveSet = new HashSet<>();
-        // Check if each move will result in check
-        for (ChessMove move : moves) {
-            // Temporarily make the move on the board
-            ChessPiece targetPiece = gameBoard.getPiece(move.getEndPosition());
-            gameBoard.addPiece(move.getEndPosition(), piece);
-            gameBoard.addPiece(startPosition, null);
-            // If move doesn't result in check for the moving piece's team, it is a valid move
-            if (!isInCheck(piece.getTeamColor())) {
-                validMoveSet.add(move);
-            }
-            // Revert the move
-            gameBoard.addPiece(startPosition, piece);
-            gameBoard.addPiece(move.getEndPosition(), targetPiece);
-        }
+        MoveList moves = new MoveList();
+        legalMoves(BitBoard.square(startPosition), moves);
+        return moves.toChessMoves();
+    }
 
-        // Handle special move sets (Castling/En Passant)
-        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
-            validMoveSet.addAll(getCastlingMoves(startPosition, piece));
-        }
-        else if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
-            validMoveSet.addAll(getEnPassantMoves(startPosition, piece));
+    /**
+     * Adds the legal moves of the piece on the given square to a move list,
+     * as packed moves (see {@link Move}), including castling and en passant
+     *
+     * @param from the square index of the piece to move
+     * @param out the list to add moves to
+     */
+    public void legalMoves(int from, MoveList out) {
+        int code = gameBoard.getBitBoard().pieceAt(from);
+        if (code == BitBoard.EMPTY) {
+            return;
         }
+        generateLegal(BitBoard.colorOf(code), 1L << from, out);
+    }
 
-        return validMoveSet;
+    /**
+     * Adds every legal move of the team whose turn it is to a move list,
+     * as packed moves (see {@link Move})
+     *
+     * @param out the list to add moves to
+     */
+    public void legalMoves(MoveList out) {
+        generateLegal(teamTurn, -1L, out);
     }
 
     /**
@@ -99,47 +137,192 @@ public class ChessGame {
         if (!validMoves(move.getStartPosition()).contains(move) || gameBoard.getPiece(move.getStartPosition()).getTeamColor() != teamTurn) {
             throw new InvalidMoveException("Invalid move!");
         }
-        // Make the move
-        ChessPiece piece = gameBoard.getPiece(move.getStartPosition());
-        if (isCastlingMove(move, piece)) { // Castling
-            makeCastlingMove(move);
+        play(Move.fromChessMove(move), move);
+    }
+
+    /**
+     * Makes a packed move (see {@link Move}) without checking that it is legal.
+     * Castling, en passant and promotion are recognized from the board, so the
+     * move's flags are optional. Every change is recorded so {@link #unmakeMove()}
+     * can restore the game exactly.
+     *
+     * @param move the packed move to make
+     */
+    public void makeMove(int move) {
+        play(move, null);
+    }
+
+    /**
+     * Takes back the last move made with either makeMove, restoring the board,
+     * movement flags, turn, last move and move clocks
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void unmakeMove() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("There is no move to take back");
         }
-        else if (isEnPassantMove(move, piece)) { // En Passant
-            makeEnPassantMove(move);
+        UndoState undo = undoStack.get(--undoCount);
+        history.truncate(history.size() - 1);
+        int from = Move.from(undo.move);
+        int to = Move.to(undo.move);
+
+        gameBoard.addPiece(BitBoard.position(to), null);
+        gameBoard.addPiece(BitBoard.position(from), undo.piece);
+        if (undo.captured != null) {
+            gameBoard.addPiece(BitBoard.position(undo.capturedSquare), undo.captured);
         }
-        else { // All other moves
-            // If there is a promotion, make it happen
-            if (move.getPromotionPiece() != null) {
-                piece = new ChessPiece(gameBoard.getPiece(move.getStartPosition()).getTeamColor(), move.getPromotionPiece());
-            }
-            gameBoard.addPiece(move.getEndPosition(), piece);
-            gameBoard.addPiece(move.getStartPosition(), null);
+        undo.piece.setHasMoved(undo.pieceHadMoved);
+        undo.piece.setJustMovedTwo(undo.pieceJustMovedTwo);
+
+        if (undo.rook != null) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            gameBoard.addPiece(BitBoard.position(rookTo), null);
+            gameBoard.addPiece(BitBoard.position(rookFrom), undo.rook);
+            undo.rook.setHasMoved(undo.rookHadMoved);
         }
 
-        // Set movement flags and save last move
-        piece.setHasMoved();
-        if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
-            piece.setJustMovedTwo(Math.abs(move.getStartPosition().getRow() - move.getEndPosition().getRow()) == 2);
+        lastMove = undo.lastMove;
+        halfmoveClock = undo.halfmoveClock;
+        fullmoveNumber = undo.fullmoveNumber;
+        teamTurn = undo.teamTurn;
+        stateKey = undo.stateKey;
+        stateKeyValid = true;
+        undo.release();
+    }
+
+    /**
+     * @return the number of moves that can currently be taken back
+     */
+    public int getUndoDepth() {
+        return undoCount;
+    }
+
+    /**
+     * @return the most recent move made, or null if there isn't one
+     */
+    public ChessMove getLastMove() {
+        return lastMove;
+    }
+
+    /**
+     * @return the number of moves since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the number of the current full move, starting at 1 and
+     * increasing after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Gets the moves that led to this position, oldest first. Games stored with
+     * {@link GameCodec} keep their history; games given a new board start over.
+     *
+     * @return a new list of the moves played
+     */
+    public List<ChessMove> getMoveHistory() {
+        List<ChessMove> moves = new ArrayList<>(history.size());
+        for (int i = 0; i < history.size(); i++) {
+            moves.add(Move.toChessMove(history.get(i)));
         }
-        lastMove = move;
+        return moves;
+    }
 
-        // Switch turn
-        switch (teamTurn) {
-            case WHITE -> teamTurn = TeamColor.BLACK;
-            case BLACK -> teamTurn = TeamColor.WHITE;
-            default -> throw new RuntimeException("Switching teams broke");
+    /**
+     * @return the number of moves in {@link #getMoveHistory()}, without building the list
+     */
+    public int getMoveCount() {
+        return history.size();
+    }
+
+    /**
+     * @return the live list of packed moves played, for codecs in this package
+     */
+    MoveList moveHistory() {
+        return history;
+    }
+
+    /**
+     * Builds a game from a position in Forsyth-Edwards Notation
+     *
+     * @param fen the position, e.g. {@link Fen#START}
+     * @return a new game in that position
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static ChessGame fromFen(String fen) {
+        return Fen.load(fen);
+    }
+
+    /**
+     * @return this game's position in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        return Fen.toFen(this);
+    }
+
+    /**
+     * Gets the Zobrist key of the position: the pieces, the side to move, the castling
+     * rights and the en passant file. It is updated as moves are made and taken back,
+     * so equal positions reached by different move orders share a key.
+     *
+     * @return the 64-bit key of the position
+     */
+    public long getZobristKey() {
+        return gameBoard.getZobristKey() ^ stateKey();
+    }
+
+    /**
+     * Gets the castling rights left in the game. A right remains while the king
+     * and that rook are on their starting squares and neither has moved.
+     *
+     * @return a combination of the WHITE_/BLACK_ KINGSIDE/QUEENSIDE flags
+     */
+    public int getCastlingRights() {
+        int rights = 0;
+        if (hasCastlingRight(TeamColor.WHITE, 7)) {rights |= WHITE_KINGSIDE;}
+        if (hasCastlingRight(TeamColor.WHITE, 0)) {rights |= WHITE_QUEENSIDE;}
+        if (hasCastlingRight(TeamColor.BLACK, 7)) {rights |= BLACK_KINGSIDE;}
+        if (hasCastlingRight(TeamColor.BLACK, 0)) {rights |= BLACK_QUEENSIDE;}
+        return rights;
+    }
+
+    /**
+     * Gets the square a pawn could capture onto en passant, which is the square
+     * skipped by a pawn that just moved two spaces
+     *
+     * @return the square index, or BitBoard.EMPTY if no en passant capture is possible
+     */
+    public int getEnPassantSquare() {
+        if (lastMove == null) {
+            return BitBoard.EMPTY;
         }
+        ChessPosition start = lastMove.getStartPosition();
+        ChessPosition end = lastMove.getEndPosition();
+        ChessPiece lastMovedPiece = gameBoard.getPiece(end);
+        if (lastMovedPiece == null || lastMovedPiece.getPieceType() != ChessPiece.PieceType.PAWN ||
+                start.getColumn() != end.getColumn() || Math.abs(start.getRow() - end.getRow()) != 2) {
+            return BitBoard.EMPTY;
+        }
+        return BitBoard.square(new ChessPosition((start.getRow() + end.getRow()) / 2, start.getColumn()));
     }
 
+    /**
+     * Determines if the given team is in check
+     *
+     * @param teamColor which team to check for check
+     * @return True if the specified team is in check
+     */
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingPos = findKingPosition(teamColor);
-        Collection<ChessMove> opponentMoves = getEnemyMoves(teamColor);
-        for (ChessMove move : opponentMoves) {
-            if (move.getEndPosition().equals(kingPos)) {
-                return true;
-            }
-        }
-        return false;
+        BitBoard bits = gameBoard.getBitBoard();
+        int kingSq = bits.kingSquare(teamColor);
+        return kingSq != BitBoard.EMPTY && bits.isAttacked(kingSq, opponent(teamColor));
     }
 
     /**
@@ -150,25 +333,7 @@ public class ChessGame {
      */
     public boolean isInCheckmate(TeamColor teamColor) {
         // If not in check, then cannot be in checkmate
-        if (!isInCheck(teamColor)) {
-            return false;
-        }
-        // Check each piece
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPosition currPos = new ChessPosition(row + 1, col + 1);
-                ChessPiece piece = gameBoard.getPiece(currPos);
-                // If it's the piece's turn, check its move set
-                if (piece != null && piece.getTeamColor() == teamTurn) {
-                    Collection<ChessMove> moves = validMoves(currPos);
-                    // If there are valid moves, then it cannot be checkmate
-                    if (!moves.isEmpty()) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+        return isInCheck(teamColor) && !hasLegalMove(teamColor);
     }
 
     /**
@@ -183,22 +348,7 @@ public class ChessGame {
         if (isInCheck(teamColor) || teamColor != teamTurn) {
             return false;
         }
-        // Check each piece
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                ChessPosition currPos = new ChessPosition(i + 1, j + 1);
-                ChessPiece piece = gameBoard.getPiece(currPos);
-                // If it's the piece's turn, check its move set
-                if (piece != null && piece.getTeamColor() == teamTurn) {
-                    Collection<ChessMove> moves = validMoves(currPos);
-                    // If there are valid moves, then it cannot be stalemate
-                    if (!moves.isEmpty()) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+        return !hasLegalMove(teamColor);
     }
 
     /**
@@ -208,6 +358,28 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         gameBoard = board;
+        // History from the old board doesn't apply to the new one
+        lastMove = null;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        undoCount = 0;
+        history.clear();
+        stateKeyValid = false;
+    }
+
+    /**
+     * Restores history that a position alone doesn't show, for games
+     * built from a saved position rather than by playing moves
+     *
+     * @param lastMove the move that reached the position, or null
+     * @param halfmoveClock moves since the last capture or pawn move
+     * @param fullmoveNumber the number of the current full move
+     */
+    void restoreHistory(ChessMove lastMove, int halfmoveClock, int fullmoveNumber) {
+        this.lastMove = lastMove;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        stateKeyValid = false;
     }
 
     /**
@@ -220,244 +392,192 @@ public class ChessGame {
     }
 
     /**
-     * Helper function. Locates the King's position
-     * on the board
+     * Helper function. Runs the legal move generator
+     * with this game's castling and en passant state
      *
-     * @param teamColor which team color's king to find
-     * @return the king's position of the given color
-     */
-    private ChessPosition findKingPosition(TeamColor teamColor) {
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                ChessPiece piece = gameBoard.getPiece(new ChessPosition(i + 1, j + 1));
-                if (piece != null && piece.getTeamColor() == teamColor && piece.getPieceType() == ChessPiece.PieceType.KING) {
-                    return new ChessPosition(i + 1, j + 1);
-                }
-            }
+     * @param team the team to generate moves for
+     * @param fromMask bitboard of the pieces to generate moves for
+     * @param out the list to add moves to
+     */
+    private void generateLegal(TeamColor team, long fromMask, MoveList out) {
+        int enPassant = getEnPassantSquare();
+        // Only the opponent's pawn can be captured en passant
+        if (enPassant != BitBoard.EMPTY && gameBoard.getPiece(lastMove.getEndPosition()).getTeamColor() == team) {
+            enPassant = BitBoard.EMPTY;
         }
-        return null;
+        MoveGenerator.generateLegal(gameBoard.getBitBoard(), team, getCastlingRights(), enPassant, fromMask, out);
     }
 
     /**
-     * Helper function. Determines if the given
-     * move is a castle move
+     * Helper function. Determines if a team has
+     * at least one legal move
      *
-     * @param move the move being checked
-     * @param piece the piece performing the move
-     * @return true if the move is castling
+     * @param team the team to check
+     * @return true if any legal move exists
      */
-    private boolean isCastlingMove(ChessMove move, ChessPiece piece) {
-        // If the piece isn't a king, it isn't castling
-        if (piece.getPieceType() != ChessPiece.PieceType.KING) {
-            return false;
-        }
-        // Find differences between start and end positions to determine if castling
-        ChessPosition start = move.getStartPosition();
-        ChessPosition end = move.getEndPosition();
-        int rowDiff = Math.abs(start.getRow() - end.getRow());
-        int colDiff = Math.abs(start.getColumn() - end.getColumn());
-        return rowDiff == 0 && colDiff == 2;
+    private boolean hasLegalMove(TeamColor team) {
+        MoveList moves = new MoveList();
+        generateLegal(team, -1L, moves);
+        return !moves.isEmpty();
     }
 
     /**
-     * Helper function. Performs the given
-     * castling move
+     * Helper function. Gets the opposing team
      *
-     * @param move the move being performed
-     */
-    private void makeCastlingMove(ChessMove move) {
-        ChessPiece king = gameBoard.getPiece(move.getStartPosition());
-        int row = move.getStartPosition().getRow();
-
-        // Decide if King or Queen-side castling
-        if (move.getEndPosition().getColumn() == 7) { // King-side castling
-            ChessPiece rook = gameBoard.getPiece(new ChessPosition(row, 8));
-            gameBoard.addPiece(new ChessPosition(row, 7), king);
-            gameBoard.addPiece(new ChessPosition(row, 6), rook);
-            gameBoard.addPiece(new ChessPosition(row, 5), null);
-            gameBoard.addPiece(new ChessPosition(row, 8), null);
-        }
-        else if (move.getEndPosition().getColumn() == 3) {
-            ChessPiece rook = gameBoard.getPiece(new ChessPosition(row, 1));
-            gameBoard.addPiece(new ChessPosition(row, 3), king);
-            gameBoard.addPiece(new ChessPosition(row, 4), rook);
-            gameBoard.addPiece(new ChessPosition(row, 5), null);
-            gameBoard.addPiece(new ChessPosition(row, 1), null);
-        }
+     * @param teamColor the team whose opponent to find
+     * @return the other team color
+     */
+    private static TeamColor opponent(TeamColor teamColor) {
+        return teamColor == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
     }
 
     /**
-     * Helper function. Gets all
-     * the possible castling moves
+     * Helper function. Performs a packed move and pushes the
+     * information needed to take it back
      *
-     * @param position the position of the king
-     * @param king the king piece in question
-     * @return Collection of all possible castling moves
-     */
-    private Collection<ChessMove> getCastlingMoves(ChessPosition position, ChessPiece king) {
-        Set<ChessMove> moves = new HashSet<>();
-        if (king.hasMoved() || isInCheck(king.getTeamColor())) {
-            return moves;
+     * @param move the packed move being performed
+     * @param chessMove the same move as a ChessMove, or null to create one
+     */
+    private void play(int move, ChessMove chessMove) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece piece = gameBoard.getPiece(BitBoard.position(from));
+        if (piece == null) {
+            throw new IllegalArgumentException("There is no piece to move at " + Move.squareName(from));
         }
+        boolean isPawn = piece.getPieceType() == ChessPiece.PieceType.PAWN;
 
-        if (canCastleKingside(position.getRow(), king.getTeamColor())) {
-            moves.add(new ChessMove(position, new ChessPosition(position.getRow(), 7), null));
+        if (undoCount == undoStack.size()) {
+            undoStack.add(new UndoState());
         }
-        if (canCastleQueenside(position.getRow(), king.getTeamColor())) {
-            moves.add(new ChessMove(position, new ChessPosition(position.getRow(), 3), null));
+        UndoState undo = undoStack.get(undoCount++);
+        undo.move = move;
+        undo.piece = piece;
+        undo.pieceHadMoved = piece.hasMoved();
+        undo.pieceJustMovedTwo = piece.justMovedTwo();
+        undo.lastMove = lastMove;
+        undo.castlingRights = getCastlingRights();
+        undo.enPassantSquare = getEnPassantSquare();
+        undo.halfmoveClock = halfmoveClock;
+        undo.fullmoveNumber = fullmoveNumber;
+        undo.teamTurn = teamTurn;
+        undo.stateKey = stateKey();
+        history.add(Move.key(move));
+
+        // A pawn moving diagonally onto an empty square is capturing en passant
+        int capturedSquare = to;
+        if (isPawn && from % 8 != to % 8 && gameBoard.getPiece(BitBoard.position(to)) == null) {
+            capturedSquare = from - from % 8 + to % 8;
         }
-
-        return moves;
-    }
-
-    /**
-     * Helper function. Determines if king-side
-     * castling is possible
-     *
-     * @param row the move being checked (1-based)
-     * @param team the king's team color
-     * @return true if the king-side castle is possible
-     */
-    private boolean canCastleKingside(int row, TeamColor team) {
-        ChessPiece piece = gameBoard.getPiece(new ChessPosition(row, 8));
-        if (piece != null && piece.getPieceType() == ChessPiece.PieceType.ROOK) {
-            ChessPosition pos1 = new ChessPosition(row, 7);
-            ChessPosition pos2 = new ChessPosition(row, 6);
-            return !piece.hasMoved() &&
-                    gameBoard.getPiece(pos1) == null &&
-                    gameBoard.getPiece(pos2) == null &&
-                    isSafe(pos1, team) &&
-                    isSafe(pos2, team);
-        }
-        return false;
-    }
-
-    /**
-     * Helper function. Determines if queen-side
-     * castling is possible
-     *
-     * @param row the move being checked (1-based)
-     * @param team the king's team color
-     * @return true if the queen-side castle is possible
-     */
-    private boolean canCastleQueenside(int row, TeamColor team) {
-        ChessPiece piece = gameBoard.getPiece(new ChessPosition(row, 1));
-        if (piece != null && piece.getPieceType() == ChessPiece.PieceType.ROOK) {
-            ChessPosition pos1 = new ChessPosition(row, 4);
-            ChessPosition pos2 = new ChessPosition(row, 3);
-            ChessPosition pos3 = new ChessPosition(row, 2);
-            return !piece.hasMoved() &&
-                    gameBoard.getPiece(pos1) == null &&
-                    gameBoard.getPiece(pos2) == null &&
-                    gameBoard.getPiece(pos3) == null &&
-                    isSafe(pos1, team) &&
-                    isSafe(pos2, team);
+        undo.captured = gameBoard.getPiece(BitBoard.position(capturedSquare));
+        undo.capturedSquare = capturedSquare;
+        if (undo.captured != null) {
+            gameBoard.addPiece(BitBoard.position(capturedSquare), null);
         }
-        return false;
-    }
 
-    /**
-     * Helper function. Determines if a space
-     * is safe to move into
-     *
-     * @param targetPos the position being moved into
-     * @param team the color of the team who turn it is currently
-     * @return true if the space is safe
-     */
-    private boolean isSafe(ChessPosition targetPos, TeamColor team) {
-        Collection<ChessMove> opponentMoves = getEnemyMoves(team);
-        return !isPositionUnderAttack(targetPos, opponentMoves);
-    }
-
-    /**
-     * Helper function. Gets a collection of all possible enemy moves.
-     *
-     * @param team the color of the team who turn it is currently
-     * @return Collection of all the opponent's moves
-     */
-    private Collection<ChessMove> getEnemyMoves(TeamColor team) {
-        Collection<ChessMove> enemyMoves = new HashSet<>();
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                ChessPiece piece = gameBoard.getPiece(new ChessPosition(i + 1, j + 1));
-                if (piece != null && piece.getTeamColor() != team) {
-                    enemyMoves.addAll(piece.pieceMoves(gameBoard, new ChessPosition(i + 1, j + 1)));
-                }
+        // If there is a promotion, make it happen
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        ChessPiece placed = promotion == null ? piece : new ChessPiece(piece.getTeamColor(), promotion);
+        gameBoard.addPiece(BitBoard.position(to), placed);
+        gameBoard.addPiece(BitBoard.position(from), null);
+
+        // A king moving two spaces is castling, so the rook jumps over it
+        undo.rook = null;
+        if (piece.getPieceType() == ChessPiece.PieceType.KING && Math.abs(from % 8 - to % 8) == 2) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            ChessPiece rook = gameBoard.getPiece(BitBoard.position(rookFrom));
+            if (rook != null) {
+                undo.rook = rook;
+                undo.rookHadMoved = rook.hasMoved();
+                gameBoard.addPiece(BitBoard.position(rookTo), rook);
+                gameBoard.addPiece(BitBoard.position(rookFrom), null);
+                rook.setHasMoved();
             }
         }
-        return enemyMoves;
-    }
 
-    /**
-     * Helper function. Checks if an enemy can
-     * move into the given position
-     *
-     * @param targetPos the position being moved into
-     * @param enemyMoves a collection of all enemy moves
-     * @return true if the enemy can move into the target position
-     */
-    private boolean isPositionUnderAttack(ChessPosition targetPos, Collection<ChessMove> enemyMoves) {
-        for (ChessMove move : enemyMoves) {
-            if (move.getEndPosition().equals(targetPos)) {
-                return true;
-            }
+        // Set movement flags and save last move
+        placed.setHasMoved();
+        if (placed.getPieceType() == ChessPiece.PieceType.PAWN) {
+            placed.setJustMovedTwo(Math.abs(from - to) == 16);
+        }
+        lastMove = chessMove != null ? chessMove : Move.toChessMove(move);
+        halfmoveClock = isPawn || undo.captured != null ? 0 : halfmoveClock + 1;
+        if (piece.getTeamColor() == TeamColor.BLACK) {
+            fullmoveNumber++;
         }
-        return false;
+
+        // Switch turn
+        teamTurn = opponent(piece.getTeamColor());
+
+        // Only the state part of the key changes here, addPiece already updated the pieces
+        int castlingRights = undo.castlingRights & CASTLING_KEPT[from] & CASTLING_KEPT[to];
+        int enPassantSquare = isPawn && Math.abs(from - to) == 16 ? (from + to) / 2 : BitBoard.EMPTY;
+        stateKey = undo.stateKey
+                ^ Zobrist.side(undo.teamTurn) ^ Zobrist.side(teamTurn)
+                ^ Zobrist.castling(undo.castlingRights) ^ Zobrist.castling(castlingRights)
+                ^ Zobrist.enPassant(undo.enPassantSquare) ^ Zobrist.enPassant(enPassantSquare);
     }
 
     /**
-     * Helper function. Determines if the given
-     * move is an en passant move
+     * Helper function. Gets the non-piece part of the Zobrist
+     * key, recomputing it after the turn or board was replaced
      *
-     * @param move the move being checked
-     * @param piece the piece performing the move
-     * @return true if the move is en passant
+     * @return the key for side to move, castling and en passant
      */
-    private boolean isEnPassantMove(ChessMove move, ChessPiece piece) {
-        if (piece.getPieceType() != ChessPiece.PieceType.PAWN) {
-            return false;
+    private long stateKey() {
+        if (!stateKeyValid) {
+            stateKey = Zobrist.side(teamTurn) ^ Zobrist.castling(getCastlingRights()) ^
+                    Zobrist.enPassant(getEnPassantSquare());
+            stateKeyValid = true;
         }
-        return move.getStartPosition().getColumn() != move.getEndPosition().getColumn() && gameBoard.getPiece(move.getEndPosition()) == null;
+        return stateKey;
     }
 
     /**
-     * Helper function. Makes an
-     * en passant move
+     * Helper function. Determines if a team can still
+     * castle with one of its rooks
      *
-     * @param move the move being performed
+     * @param team the team to check
+     * @param rookCol the rook's starting column (0-based)
+     * @return true if neither the king nor the rook has moved
      */
-    private void makeEnPassantMove(ChessMove move) {
-        ChessPiece pawn = gameBoard.getPiece(move.getStartPosition());
-        gameBoard.addPiece(move.getEndPosition(), pawn);
-        gameBoard.addPiece(move.getStartPosition(), null);
-        gameBoard.addPiece(new ChessPosition(move.getStartPosition().getRow(), move.getEndPosition().getColumn()), null);
+    private boolean hasCastlingRight(TeamColor team, int rookCol) {
+        int homeRow = team == TeamColor.WHITE ? 0 : 56;
+        ChessPiece king = gameBoard.getPiece(BitBoard.position(homeRow + 4));
+        ChessPiece rook = gameBoard.getPiece(BitBoard.position(homeRow + rookCol));
+        return king != null && king.getTeamColor() == team && king.getPieceType() == ChessPiece.PieceType.KING &&
+                !king.hasMoved() &&
+                rook != null && rook.getTeamColor() == team && rook.getPieceType() == ChessPiece.PieceType.ROOK &&
+                !rook.hasMoved();
     }
 
     /**
-     * Helper function. Gets all
-     * the en passant moves
-     *
-     * @param position the position of the pawn
-     * @param pawn the pawn in question
-     * @return Collection of all possible en passant moves
+     * Everything needed to take back one move
      */
-    private Collection<ChessMove> getEnPassantMoves(ChessPosition position, ChessPiece pawn) {
-        Set<ChessMove> moves = new HashSet<>();
-        int col = position.getColumn();
-        int moveDir = pawn.getTeamColor() == TeamColor.WHITE ? 1 : -1;
-
-        if (lastMove == null) {
-            return moves;
+    private static final class UndoState {
+        private int move;
+        private ChessPiece piece;
+        private boolean pieceHadMoved;
+        private boolean pieceJustMovedTwo;
+        private ChessPiece captured;
+        private int capturedSquare;
+        private ChessPiece rook;
+        private boolean rookHadMoved;
+        private ChessMove lastMove;
+        private int castlingRights;
+        private int enPassantSquare;
+        private int halfmoveClock;
+        private int fullmoveNumber;
+        private TeamColor teamTurn;
+        private long stateKey;
+
+        // drops object references so a popped record doesn't keep pieces alive
+        private void release() {
+            piece = null;
+            captured = null;
+            rook = null;
+            lastMove = null;
         }
-
-        ChessPiece lastMovedPiece = gameBoard.getPiece(lastMove.getEndPosition());
-        if (lastMovedPiece.getPieceType() == ChessPiece.PieceType.PAWN &&
-                Math.abs(lastMove.getStartPosition().getRow() - lastMove.getEndPosition().getRow()) == 2) {
-            if (lastMove.getEndPosition().getColumn() == col - 1 || lastMove.getEndPosition().getColumn() == col + 1) {
-                moves.add(new ChessMove(position, new ChessPosition(position.getRow() + moveDir, lastMove.getEndPosition().getColumn()), null));
-            }
-        }
-
-        return moves;
     }
 }
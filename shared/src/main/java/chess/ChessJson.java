@@ -0,0 +1,301 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * The Gson setup shared by the server, the DAOs and the client.
+ * <p>
+ * Chess types are written in a compact form instead of by reflection:
+ * <ul>
+ *   <li>ChessPosition: square name, {@code "e4"}</li>
+ *   <li>ChessMove: coordinate notation, {@code "e7e8q"}</li>
+ *   <li>ChessPiece: FEN letter, {@code "N"} or {@code "n"}, unless it has moved</li>
+ *   <li>ChessBoard: FEN piece placement, unless a king or rook has moved and come home</li>
+ *   <li>ChessGame: {@code {"fen": "...", "moves": ["e2e4", ...]}}</li>
+ * </ul>
+ * The reflective object forms are still read, so stored JSON and clients
+ * that serialize these types with a plain Gson keep working. They are also
+ * written for pieces and boards whose moved flags the compact form would lose,
+ * so a board never gains back castling rights, or an en passant capture, from a
+ * round trip.
+ */
+public final class ChessJson {
+
+    public static final Gson GSON = builder().create();
+
+    private ChessJson() {}
+
+    /**
+     * @return a builder with the chess adapters registered, for callers that need more configuration
+     */
+    public static GsonBuilder builder() {
+        return new GsonBuilder().registerTypeAdapterFactory(new ChessAdapterFactory());
+    }
+
+    /**
+     * Creates the compact adapters, handing the reflective adapter to
+     * each so it can read the older object form
+     */
+    private static final class ChessAdapterFactory implements TypeAdapterFactory {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            Class<? super T> raw = type.getRawType();
+            TypeAdapter<?> adapter;
+            if (raw == ChessPosition.class) {
+                adapter = new PositionAdapter((TypeAdapter<ChessPosition>) gson.getDelegateAdapter(this, type));
+            }
+            else if (raw == ChessMove.class) {
+                adapter = new MoveAdapter((TypeAdapter<ChessMove>) gson.getDelegateAdapter(this, type));
+            }
+            else if (raw == ChessPiece.class) {
+                adapter = new PieceAdapter((TypeAdapter<ChessPiece>) gson.getDelegateAdapter(this, type));
+            }
+            else if (raw == ChessBoard.class) {
+                adapter = new BoardAdapter((TypeAdapter<ChessBoard>) gson.getDelegateAdapter(this, type));
+            }
+            else if (raw == ChessGame.class) {
+                adapter = new GameAdapter((TypeAdapter<ChessGame>) gson.getDelegateAdapter(this, type));
+            }
+            else {
+                return null;
+            }
+            return (TypeAdapter<T>) adapter.nullSafe();
+        }
+    }
+
+    private static final class PositionAdapter extends TypeAdapter<ChessPosition> {
+        private final TypeAdapter<ChessPosition> legacy;
+
+        private PositionAdapter(TypeAdapter<ChessPosition> legacy) {
+            this.legacy = legacy;
+        }
+
+        @Override
+        public void write(JsonWriter out, ChessPosition position) throws IOException {
+            if (!onBoard(position)) {
+                legacy.write(out, position);
+                return;
+            }
+            out.value(Move.squareName(BitBoard.square(position)));
+        }
+
+        @Override
+        public ChessPosition read(JsonReader in) throws IOException {
+            if (in.peek() != JsonToken.STRING) {
+                return legacy.read(in);
+            }
+            String name = in.nextString();
+            if (name.length() != 2) {
+                throw new JsonParseException("Bad square: " + name);
+            }
+            return BitBoard.position(parseSquare(name, 0));
+        }
+    }
+
+    private static final class MoveAdapter extends TypeAdapter<ChessMove> {
+        private final TypeAdapter<ChessMove> legacy;
+
+        private MoveAdapter(TypeAdapter<ChessMove> legacy) {
+            this.legacy = legacy;
+        }
+
+        @Override
+        public void write(JsonWriter out, ChessMove move) throws IOException {
+            if (!onBoard(move.getStartPosition()) || !onBoard(move.getEndPosition())) {
+                legacy.write(out, move);
+                return;
+            }
+            out.value(Move.toString(Move.fromChessMove(move)));
+        }
+
+        @Override
+        public ChessMove read(JsonReader in) throws IOException {
+            if (in.peek() != JsonToken.STRING) {
+                return legacy.read(in);
+            }
+            return Move.toChessMove(parseMove(in.nextString()));
+        }
+    }
+
+    private static final class PieceAdapter extends TypeAdapter<ChessPiece> {
+        private final TypeAdapter<ChessPiece> legacy;
+
+        private PieceAdapter(TypeAdapter<ChessPiece> legacy) {
+            this.legacy = legacy;
+        }
+
+        @Override
+        public void write(JsonWriter out, ChessPiece piece) throws IOException {
+            // a letter is read back as a piece that hasn't moved
+            if (piece.hasMoved() || piece.justMovedTwo()) {
+                legacy.write(out, piece);
+                return;
+            }
+            out.value(String.valueOf(Fen.pieceLetter(piece)));
+        }
+
+        @Override
+        public ChessPiece read(JsonReader in) throws IOException {
+            if (in.peek() != JsonToken.STRING) {
+                return legacy.read(in);
+            }
+            String letter = in.nextString();
+            try {
+                if (letter.length() != 1) {
+                    throw new IllegalArgumentException("Bad piece: " + letter);
+                }
+                char c = letter.charAt(0);
+                return new ChessPiece(Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK,
+                        Fen.pieceType(c));
+            }
+            catch (IllegalArgumentException e) {
+                throw new JsonParseException(e.getMessage(), e);
+            }
+        }
+    }
+
+    private static final class BoardAdapter extends TypeAdapter<ChessBoard> {
+        private final TypeAdapter<ChessBoard> legacy;
+
+        private BoardAdapter(TypeAdapter<ChessBoard> legacy) {
+            this.legacy = legacy;
+        }
+
+        @Override
+        public void write(JsonWriter out, ChessBoard board) throws IOException {
+            if (!Fen.placementKeepsFlags(board)) {
+                legacy.write(out, board);
+                return;
+            }
+            out.value(Fen.toPlacement(board));
+        }
+
+        @Override
+        public ChessBoard read(JsonReader in) throws IOException {
+            if (in.peek() != JsonToken.STRING) {
+                return legacy.read(in);
+            }
+            try {
+                return Fen.loadBoard(in.nextString());
+            }
+            catch (IllegalArgumentException e) {
+                throw new JsonParseException(e.getMessage(), e);
+            }
+        }
+    }
+
+    private static final class GameAdapter extends TypeAdapter<ChessGame> {
+        private final TypeAdapter<ChessGame> legacy;
+
+        private GameAdapter(TypeAdapter<ChessGame> legacy) {
+            this.legacy = legacy;
+        }
+
+        @Override
+        public void write(JsonWriter out, ChessGame game) throws IOException {
+            out.beginObject();
+            out.name("fen").value(Fen.toFen(game));
+            out.name("moves").beginArray();
+            MoveList history = game.moveHistory();
+            for (int i = 0; i < history.size(); i++) {
+                out.value(Move.toString(history.get(i)));
+            }
+            out.endArray();
+            out.endObject();
+        }
+
+        @Override
+        public ChessGame read(JsonReader in) throws IOException {
+            String fen = null;
+            MoveList moves = new MoveList();
+            // fields of the reflective form, read back with the reflective adapter
+            JsonObject reflective = new JsonObject();
+
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (name.equals("fen")) {
+                    fen = in.nextString();
+                }
+                else if (name.equals("moves")) {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        moves.add(parseMove(in.nextString()));
+                    }
+                    in.endArray();
+                }
+                else {
+                    reflective.add(name, JsonParser.parseReader(in));
+                }
+            }
+            in.endObject();
+
+            if (fen == null) {
+                return legacy.fromJsonTree(reflective);
+            }
+            ChessGame game;
+            try {
+                game = Fen.load(fen);
+            }
+            catch (IllegalArgumentException e) {
+                throw new JsonParseException(e.getMessage(), e);
+            }
+            for (int i = 0; i < moves.size(); i++) {
+                game.moveHistory().add(moves.get(i));
+            }
+            if (!moves.isEmpty()) {
+                // FEN only keeps the last move when it was a double push
+                game.restoreHistory(Move.toChessMove(moves.get(moves.size() - 1)), game.getHalfmoveClock(),
+                        game.getFullmoveNumber());
+            }
+            return game;
+        }
+    }
+
+    private static boolean onBoard(ChessPosition position) {
+        return position != null && position.getRow() >= 1 && position.getRow() <= 8 &&
+                position.getColumn() >= 1 && position.getColumn() <= 8;
+    }
+
+    /**
+     * @param text a move in coordinate notation
+     * @return the packed move
+     */
+    private static int parseMove(String text) {
+        if (text.length() != 4 && text.length() != 5) {
+            throw new JsonParseException("Bad move: " + text);
+        }
+        ChessPiece.PieceType promotion = null;
+        if (text.length() == 5) {
+            try {
+                promotion = Fen.pieceType(text.charAt(4));
+            }
+            catch (IllegalArgumentException e) {
+                throw new JsonParseException("Bad promotion in move: " + text, e);
+            }
+        }
+        return Move.of(parseSquare(text, 0), parseSquare(text, 2), promotion, Move.NONE);
+    }
+
+    private static int parseSquare(String text, int index) {
+        char file = text.charAt(index);
+        char rank = text.charAt(index + 1);
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            throw new JsonParseException("Bad square in " + text);
+        }
+        return (rank - '1') * 8 + (file - 'a');
+    }
+}
@@ -63,6 +63,20 @@ public class ChessPiece {
         hasMoved = true;
     }
 
+    /**
+     * sets whether the piece has moved, used when taking a move back
+     */
+    public void setHasMoved(boolean moved) {
+        hasMoved = moved;
+    }
+
+    /**
+     * @return true if this piece's last move was two spaces forward (pawns only)
+     */
+    public boolean justMovedTwo() {
+        return justMovedTwo;
+    }
+
     /**
      * updates whether this piece just moved two spaces (pawns only)
      */
@@ -0,0 +1,316 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation, e.g.
+ * {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1}.
+ * <p>
+ * FEN state is mapped onto what ChessGame tracks: castling rights become the
+ * hasMoved flags of the king and rooks, and an en passant target becomes the
+ * opponent's double pawn push as the game's last move.
+ */
+public final class Fen {
+
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private Fen() {}
+
+    /**
+     * Builds a game from a FEN string. The move clocks are optional and default to 0 and 1.
+     *
+     * @param fen the position to load
+     * @return a new game in that position
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static ChessGame load(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("FEN needs at least 4 fields: " + fen);
+        }
+        ChessBoard board = parsePlacement(fields[0]);
+
+        ChessGame.TeamColor turn = switch (fields[1]) {
+            case "w" -> ChessGame.TeamColor.WHITE;
+            case "b" -> ChessGame.TeamColor.BLACK;
+            default -> throw new IllegalArgumentException("Bad side to move: " + fields[1]);
+        };
+
+        setMovedFlags(board, parseCastling(board, fields[2]));
+        ChessMove lastMove = parseEnPassant(board, fields[3], turn);
+        int halfmoveClock = fields.length > 4 ? parseClock(fields[4]) : 0;
+        int fullmoveNumber = fields.length > 5 ? Math.max(1, parseClock(fields[5])) : 1;
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(turn);
+        game.restoreHistory(lastMove, halfmoveClock, fullmoveNumber);
+        return game;
+    }
+
+    /**
+     * Writes a game's position as a full six field FEN string
+     *
+     * @param game the game to describe
+     * @return the FEN string
+     */
+    public static String toFen(ChessGame game) {
+        StringBuilder fen = new StringBuilder(toPlacement(game.getBoard()));
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+
+        int rights = game.getCastlingRights();
+        if (rights == 0) {
+            fen.append('-');
+        }
+        if ((rights & ChessGame.WHITE_KINGSIDE) != 0) {fen.append('K');}
+        if ((rights & ChessGame.WHITE_QUEENSIDE) != 0) {fen.append('Q');}
+        if ((rights & ChessGame.BLACK_KINGSIDE) != 0) {fen.append('k');}
+        if ((rights & ChessGame.BLACK_QUEENSIDE) != 0) {fen.append('q');}
+
+        int enPassant = game.getEnPassantSquare();
+        fen.append(' ').append(enPassant == BitBoard.EMPTY ? "-" : Move.squareName(enPassant));
+        fen.append(' ').append(game.getHalfmoveClock());
+        fen.append(' ').append(game.getFullmoveNumber());
+        return fen.toString();
+    }
+
+    /**
+     * Writes the piece placement field of a board
+     *
+     * @param board the board to describe
+     * @return the placement, ranks 8 to 1 separated by '/'
+     */
+    public static String toPlacement(ChessBoard board) {
+        StringBuilder placement = new StringBuilder();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    placement.append(empty);
+                    empty = 0;
+                }
+                placement.append(pieceLetter(piece));
+            }
+            if (empty > 0) {
+                placement.append(empty);
+            }
+            if (row > 1) {
+                placement.append('/');
+            }
+        }
+        return placement.toString();
+    }
+
+    /**
+     * Reads the piece placement field. Every piece off its
+     * starting square is marked as having moved.
+     *
+     * @param placement the first FEN field
+     * @return the board it describes
+     * @throws IllegalArgumentException if the placement is not valid FEN
+     */
+    public static ChessBoard loadBoard(String placement) {
+        ChessBoard board = parsePlacement(placement);
+        setMovedFlags(board, ChessGame.WHITE_KINGSIDE | ChessGame.WHITE_QUEENSIDE |
+                ChessGame.BLACK_KINGSIDE | ChessGame.BLACK_QUEENSIDE);
+        return board;
+    }
+
+    /**
+     * Whether {@link #loadBoard} would give back a board's pieces with the flags
+     * that matter: no piece on its starting square has moved, and no pawn has just
+     * moved two squares. A piece off its starting square is read back as moved, which
+     * changes nothing, since only a king or rook at home can castle.
+     *
+     * @param board the board to check
+     * @return true if the piece placement alone carries the board's state
+     */
+    static boolean placementKeepsFlags(ChessBoard board) {
+        ChessBoard startBoard = new ChessBoard();
+        startBoard.resetBoard();
+        for (int sq = 0; sq < 64; sq++) {
+            ChessPiece piece = board.getPiece(BitBoard.position(sq));
+            if (piece == null) {
+                continue;
+            }
+            if (piece.justMovedTwo() || piece.hasMoved() && piece.equals(startBoard.getPiece(BitBoard.position(sq)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets every piece's hasMoved flag from its square: a piece off its starting
+     * square has moved, and a king or rook at home has moved unless a castling
+     * right says otherwise
+     *
+     * @param board the board to update
+     * @param castlingRights a combination of the ChessGame castling flags
+     */
+    static void setMovedFlags(ChessBoard board, int castlingRights) {
+        ChessBoard startBoard = new ChessBoard();
+        startBoard.resetBoard();
+        for (int sq = 0; sq < 64; sq++) {
+            ChessPiece piece = board.getPiece(BitBoard.position(sq));
+            if (piece != null) {
+                piece.setHasMoved(!piece.equals(startBoard.getPiece(BitBoard.position(sq))));
+            }
+        }
+        markMovedUnless(board, 0, castlingRights, ChessGame.WHITE_QUEENSIDE);
+        markMovedUnless(board, 7, castlingRights, ChessGame.WHITE_KINGSIDE);
+        markMovedUnless(board, 4, castlingRights, ChessGame.WHITE_KINGSIDE | ChessGame.WHITE_QUEENSIDE);
+        markMovedUnless(board, 56, castlingRights, ChessGame.BLACK_QUEENSIDE);
+        markMovedUnless(board, 63, castlingRights, ChessGame.BLACK_KINGSIDE);
+        markMovedUnless(board, 60, castlingRights, ChessGame.BLACK_KINGSIDE | ChessGame.BLACK_QUEENSIDE);
+    }
+
+    private static void markMovedUnless(ChessBoard board, int sq, int castlingRights, int rights) {
+        ChessPiece piece = board.getPiece(BitBoard.position(sq));
+        if (piece != null && (castlingRights & rights) == 0) {
+            piece.setHasMoved(true);
+        }
+    }
+
+    /**
+     * Helper function. Reads the piece placement field without
+     * setting any movement flags
+     *
+     * @param placement the first FEN field
+     * @return the board it describes
+     */
+    private static ChessBoard parsePlacement(String placement) {
+        String[] ranks = placement.split("/");
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("FEN board needs 8 ranks: " + placement);
+        }
+        ChessBoard board = new ChessBoard();
+        for (int i = 0; i < 8; i++) {
+            int row = 8 - i;
+            int col = 1;
+            for (char c : ranks[i].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                    continue;
+                }
+                if (col > 8) {
+                    throw new IllegalArgumentException("Rank " + row + " is too long: " + ranks[i]);
+                }
+                board.addPiece(new ChessPosition(row, col), new ChessPiece(
+                        Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK, pieceType(c)));
+                col++;
+            }
+            if (col != 9) {
+                throw new IllegalArgumentException("Rank " + row + " doesn't have 8 squares: " + ranks[i]);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Helper function. Reads the castling field, checking that
+     * the king and rook of each right are at home
+     *
+     * @param board the board the rights apply to
+     * @param castling the third FEN field
+     * @return a combination of the ChessGame castling flags
+     */
+    private static int parseCastling(ChessBoard board, String castling) {
+        int rights = 0;
+        if (castling.equals("-")) {
+            return rights;
+        }
+        for (char c : castling.toCharArray()) {
+            ChessGame.TeamColor team = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            int row = team == ChessGame.TeamColor.WHITE ? 1 : 8;
+            boolean kingside = switch (Character.toLowerCase(c)) {
+                case 'k' -> true;
+                case 'q' -> false;
+                default -> throw new IllegalArgumentException("Bad castling rights: " + castling);
+            };
+            int rookCol = kingside ? 8 : 1;
+            ChessPiece king = board.getPiece(new ChessPosition(row, 5));
+            ChessPiece rook = board.getPiece(new ChessPosition(row, rookCol));
+            if (!new ChessPiece(team, ChessPiece.PieceType.KING).equals(king) ||
+                    !new ChessPiece(team, ChessPiece.PieceType.ROOK).equals(rook)) {
+                throw new IllegalArgumentException("Castling right " + c + " without king and rook at home");
+            }
+            if (team == ChessGame.TeamColor.WHITE) {
+                rights |= kingside ? ChessGame.WHITE_KINGSIDE : ChessGame.WHITE_QUEENSIDE;
+            }
+            else {
+                rights |= kingside ? ChessGame.BLACK_KINGSIDE : ChessGame.BLACK_QUEENSIDE;
+            }
+        }
+        return rights;
+    }
+
+    /**
+     * Helper function. Turns an en passant target into the
+     * double pawn push that allowed it
+     *
+     * @param board the board, whose pushed pawn gets flagged
+     * @param target the fourth FEN field
+     * @param turn the side to move
+     * @return the pawn's move, or null if there is no target
+     */
+    private static ChessMove parseEnPassant(ChessBoard board, String target, ChessGame.TeamColor turn) {
+        if (target.equals("-")) {
+            return null;
+        }
+        int row = turn == ChessGame.TeamColor.WHITE ? 6 : 3;
+        if (target.length() != 2 || target.charAt(0) < 'a' || target.charAt(0) > 'h' || target.charAt(1) - '0' != row) {
+            throw new IllegalArgumentException("Bad en passant target: " + target);
+        }
+        int col = target.charAt(0) - 'a' + 1;
+        int direction = turn == ChessGame.TeamColor.WHITE ? 1 : -1;
+        ChessPosition end = new ChessPosition(row - direction, col);
+        ChessPiece pawn = board.getPiece(end);
+        if (!new ChessPiece(turn == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE,
+                ChessPiece.PieceType.PAWN).equals(pawn)) {
+            throw new IllegalArgumentException("No pawn to capture en passant on " + target);
+        }
+        pawn.setJustMovedTwo(true);
+        return new ChessMove(new ChessPosition(row + direction, col), end, null);
+    }
+
+    private static int parseClock(String clock) {
+        try {
+            int value = Integer.parseInt(clock);
+            if (value < 0) {
+                throw new IllegalArgumentException("Negative move clock: " + clock);
+            }
+            return value;
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad move clock: " + clock, e);
+        }
+    }
+
+    static char pieceLetter(ChessPiece piece) {
+        char letter = switch (piece.getPieceType()) {
+            case KING -> 'k';
+            case QUEEN -> 'q';
+            case ROOK -> 'r';
+            case BISHOP -> 'b';
+            case KNIGHT -> 'n';
+            case PAWN -> 'p';
+        };
+        return piece.getTeamColor() == ChessGame.TeamColor.WHITE ? Character.toUpperCase(letter) : letter;
+    }
+
+    static ChessPiece.PieceType pieceType(char c) {
+        return switch (Character.toLowerCase(c)) {
+            case 'k' -> ChessPiece.PieceType.KING;
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'p' -> ChessPiece.PieceType.PAWN;
+            default -> throw new IllegalArgumentException("Unknown piece: " + c);
+        };
+    }
+}
@@ -0,0 +1,187 @@
+package chess;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Compact, versioned binary form of a ChessGame: the current position plus the
+ * moves that led to it. The starting position takes 31 bytes and each move
+ * played adds 2, against several kilobytes of reflective Gson JSON.
+ * <p>
+ * Version 1 layout, multi-byte values big-endian:
+ * <pre>
+ * byte     version
+ * byte     bit 0 black to move, bits 1-4 castling rights
+ * short    last move (from | to &lt;&lt; 6 | promotion &lt;&lt; 12), or 0xFFFF for none
+ * varint   halfmove clock
+ * varint   fullmove number
+ * long     occupied squares, bit n = square n (a1 = 0)
+ * nibbles  piece code (see {@link BitBoard#code}) of each occupied square, in square order
+ * varint   number of moves in the history
+ * short    each move, oldest first, packed like the last move
+ * </pre>
+ * Movement flags are rebuilt the same way as for FEN (see {@link Fen}).
+ */
+public final class GameCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int NO_MOVE = 0xFFFF;
+
+    private GameCodec() {}
+
+    /**
+     * @param game the game to encode
+     * @return the game in the current binary version
+     */
+    public static byte[] encode(ChessGame game) {
+        BitBoard bits = game.getBoard().getBitBoard();
+        MoveList history = game.moveHistory();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 + history.size() * 2);
+
+        out.write(VERSION);
+        out.write((game.getTeamTurn() == ChessGame.TeamColor.BLACK ? 1 : 0) | game.getCastlingRights() << 1);
+        writeMove(out, game.getLastMove() == null ? NO_MOVE : Move.fromChessMove(game.getLastMove()));
+        writeVarint(out, game.getHalfmoveClock());
+        writeVarint(out, game.getFullmoveNumber());
+
+        long occupied = bits.occupied();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (occupied >>> shift));
+        }
+        int pending = -1;
+        for (long rest = occupied; rest != 0; rest &= rest - 1) {
+            int code = bits.pieceAt(Long.numberOfTrailingZeros(rest));
+            if (pending < 0) {
+                pending = code << 4;
+            }
+            else {
+                out.write(pending | code);
+                pending = -1;
+            }
+        }
+        if (pending >= 0) {
+            out.write(pending);
+        }
+
+        writeVarint(out, history.size());
+        for (int i = 0; i < history.size(); i++) {
+            writeMove(out, history.get(i));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param data bytes written by {@link #encode}, in any supported version
+     * @return the decoded game
+     * @throws IllegalArgumentException if the data is corrupt or from an unknown version
+     */
+    public static ChessGame decode(byte[] data) {
+        Reader in = new Reader(data);
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported game encoding version " + version);
+        }
+        int state = in.readByte();
+        int lastMove = in.readShort();
+        int halfmoveClock = in.readVarint();
+        int fullmoveNumber = in.readVarint();
+
+        long occupied = 0;
+        for (int i = 0; i < 8; i++) {
+            occupied = occupied << 8 | in.readByte();
+        }
+        ChessBoard board = new ChessBoard();
+        int nibble = 0;
+        int current = 0;
+        for (long rest = occupied; rest != 0; rest &= rest - 1) {
+            if (nibble++ % 2 == 0) {
+                current = in.readByte();
+            }
+            int code = nibble % 2 == 1 ? current >>> 4 : current & 0xF;
+            if (code >= 12) {
+                throw new IllegalArgumentException("Bad piece code " + code);
+            }
+            board.addPiece(BitBoard.position(Long.numberOfTrailingZeros(rest)),
+                    new ChessPiece(BitBoard.colorOf(code), BitBoard.typeOf(code)));
+        }
+        Fen.setMovedFlags(board, state >>> 1 & 0xF);
+
+        ChessMove last = null;
+        if (lastMove != NO_MOVE) {
+            last = Move.toChessMove(lastMove);
+            ChessPiece moved = board.getPiece(last.getEndPosition());
+            if (moved != null && moved.getPieceType() == ChessPiece.PieceType.PAWN &&
+                    Math.abs(Move.from(lastMove) - Move.to(lastMove)) == 16) {
+                moved.setJustMovedTwo(true);
+            }
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn((state & 1) == 1 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        game.restoreHistory(last, halfmoveClock, Math.max(1, fullmoveNumber));
+
+        int moves = in.readVarint();
+        MoveList history = game.moveHistory();
+        for (int i = 0; i < moves; i++) {
+            history.add(in.readShort());
+        }
+        if (!in.atEnd()) {
+            throw new IllegalArgumentException("Trailing bytes after encoded game");
+        }
+        return game;
+    }
+
+    private static void writeMove(ByteArrayOutputStream out, int move) {
+        out.write(move >>> 8 & 0xFF);
+        out.write(move & 0xFF);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Bounds-checked cursor over the encoded bytes
+     */
+    private static final class Reader {
+        private final byte[] data;
+        private int index;
+
+        private Reader(byte[] data) {
+            this.data = data;
+            index = 0;
+        }
+
+        private int readByte() {
+            if (index >= data.length) {
+                throw new IllegalArgumentException("Encoded game ends early");
+            }
+            return data[index++] & 0xFF;
+        }
+
+        private int readShort() {
+            return readByte() << 8 | readByte();
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Varint too long");
+        }
+
+        private boolean atEnd() {
+            return index == data.length;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package chess;
+
+/**
+ * Packs a chess move into a single int so move generation doesn't have to
+ * allocate ChessMove and ChessPosition objects.
+ * <p>
+ * Layout: bits 0-5 start square, bits 6-11 end square, bits 12-14 promotion
+ * piece (PieceType ordinal + 1, or 0 for none), bits 15 and up are flags.
+ * Squares use the BitBoard indexing (a1 = 0, h8 = 63).
+ */
+public final class Move {
+
+    public static final int NONE = 0;
+
+    public static final int FLAG_CAPTURE = 1 << 15;
+    public static final int FLAG_DOUBLE_PUSH = 1 << 16;
+    public static final int FLAG_EN_PASSANT = 1 << 17;
+    public static final int FLAG_CASTLE = 1 << 18;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {}
+
+    /**
+     * @return a packed move with no promotion or flags
+     */
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    /**
+     * @param promotion the piece to promote to, or null
+     * @param flags any combination of the FLAG_ constants
+     * @return a packed move
+     */
+    public static int of(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promo = promotion == null ? 0 : promotion.ordinal() + 1;
+        return from | (to << 6) | (promo << 12) | flags;
+    }
+
+    /**
+     * @return the start square of the move
+     */
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    /**
+     * @return the end square of the move
+     */
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * @return the promotion piece of the move, or null if it isn't a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promo = (move >>> 12) & 0x7;
+        return promo == 0 ? null : TYPES[promo - 1];
+    }
+
+    /**
+     * @return true if the move has all the given flags set
+     */
+    public static boolean is(int move, int flag) {
+        return (move & flag) == flag;
+    }
+
+    /**
+     * @return the move without its flags; two moves with the same squares and
+     * promotion have the same key
+     */
+    public static int key(int move) {
+        return move & 0x7FFF;
+    }
+
+    /**
+     * Adapter for callers that work with ChessMove objects
+     *
+     * @return the equivalent ChessMove
+     */
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(BitBoard.position(from(move)), BitBoard.position(to(move)), promotion(move));
+    }
+
+    /**
+     * Packs a ChessMove. The result carries no flags; compare it to generated
+     * moves with {@link #key(int)}.
+     *
+     * @return the packed move
+     */
+    public static int fromChessMove(ChessMove move) {
+        return of(BitBoard.square(move.getStartPosition()), BitBoard.square(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+
+    /**
+     * @return the move in coordinate notation, e.g. e2e4 or e7e8q
+     */
+    public static String toString(int move) {
+        String text = squareName(from(move)) + squareName(to(move));
+        ChessPiece.PieceType promo = promotion(move);
+        return promo == null ? text : text + (promo == ChessPiece.PieceType.KNIGHT ? "n" : promo.name().substring(0, 1).toLowerCase());
+    }
+
+    /**
+     * @return the algebraic name of the square, e.g. e4
+     */
+    public static String squareName(int sq) {
+        return "" + (char) ('a' + sq % 8) + (char) ('1' + sq / 8);
+    }
+}
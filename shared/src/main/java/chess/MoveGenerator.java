@@ -0,0 +1,304 @@
+package chess;
+
+/**
+ * Generates packed moves (see {@link Move}) straight from a BitBoard into a
+ * caller supplied MoveList, without allocating.
+ * <p>
+ * The generate methods give pseudo-legal moves: they follow how each piece moves
+ * but may leave the mover's own king in check. generateLegal works out the
+ * checking and pinned pieces once per position and only emits legal moves.
+ */
+public final class MoveGenerator {
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK
+    };
+
+    private MoveGenerator() {}
+
+    /**
+     * Adds every pseudo-legal move of the given team
+     *
+     * @param bits the board to generate from
+     * @param team the team to move
+     * @param out the list to add moves to
+     */
+    public static void generate(BitBoard bits, ChessGame.TeamColor team, MoveList out) {
+        long own = bits.occupancy(team);
+        while (own != 0) {
+            generate(bits, Long.numberOfTrailingZeros(own), out);
+            own &= own - 1;
+        }
+    }
+
+    /**
+     * Adds every pseudo-legal move of the piece on the given square
+     *
+     * @param bits the board to generate from
+     * @param from the square of the piece to move
+     * @param out the list to add moves to
+     */
+    public static void generate(BitBoard bits, int from, MoveList out) {
+        int code = bits.pieceAt(from);
+        if (code == BitBoard.EMPTY) {
+            return;
+        }
+        ChessGame.TeamColor team = BitBoard.colorOf(code);
+        long occupied = bits.occupied();
+        long enemy = bits.occupancy(team == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        long targets = switch (BitBoard.typeOf(code)) {
+            case KING -> Attacks.king(from);
+            case QUEEN -> Attacks.queen(from, occupied);
+            case BISHOP -> Attacks.bishop(from, occupied);
+            case KNIGHT -> Attacks.knight(from);
+            case ROOK -> Attacks.rook(from, occupied);
+            case PAWN -> {
+                addPawnMoves(from, team, occupied, enemy, out);
+                yield 0L;
+            }
+        };
+        addMoves(from, targets & ~bits.occupancy(team), enemy, out);
+    }
+
+    /**
+     * Adds every legal move of the given team, including castling and en passant.
+     * <p>
+     * The position is analyzed once: pieces giving check restrict the other pieces
+     * to capturing or blocking (the evasion mask), a double check leaves only king
+     * moves, and a pinned piece may only move along the line between its king and
+     * the pinning piece. Nothing is played out on the board.
+     *
+     * @param bits the board to generate from
+     * @param team the team to move
+     * @param castlingRights the ChessGame castling rights still available
+     * @param enPassantSquare the square a pawn of this team may capture onto en passant, or BitBoard.EMPTY
+     * @param fromMask bitboard of the pieces to generate moves for (-1 for all of them)
+     * @param out the list to add moves to
+     */
+    public static void generateLegal(BitBoard bits, ChessGame.TeamColor team, int castlingRights, int enPassantSquare,
+                                     long fromMask, MoveList out) {
+        ChessGame.TeamColor enemy = team == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long own = bits.occupancy(team);
+        long them = bits.occupancy(enemy);
+        long occupied = bits.occupied();
+        int king = bits.kingSquare(team);
+
+        // Without a king nothing can be in check or pinned
+        long evasionMask = -1L;
+        long pinned = 0L;
+        if (king != BitBoard.EMPTY) {
+            long checkers = bits.attackersOf(king, enemy, occupied);
+            if ((fromMask & (1L << king)) != 0) {
+                addKingMoves(bits, king, enemy, checkers, own, them, occupied, out);
+                if (checkers == 0) {
+                    addCastlingMoves(bits, team, enemy, king, castlingRights, occupied, out);
+                }
+            }
+            // In double check only the king can move
+            if (Long.bitCount(checkers) > 1) {
+                return;
+            }
+            if (checkers != 0) {
+                evasionMask = checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+            }
+            pinned = pinnedPieces(bits, king, enemy, own, them);
+        }
+
+        long pieces = own & fromMask & ~(king == BitBoard.EMPTY ? 0L : 1L << king);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long allowed = evasionMask;
+            if ((pinned & (1L << from)) != 0) {
+                allowed &= Attacks.line(king, from);
+            }
+
+            int code = bits.pieceAt(from);
+            long targets = switch (BitBoard.typeOf(code)) {
+                case QUEEN -> Attacks.queen(from, occupied);
+                case BISHOP -> Attacks.bishop(from, occupied);
+                case KNIGHT -> Attacks.knight(from);
+                case ROOK -> Attacks.rook(from, occupied);
+                case PAWN -> {
+                    addLegalPawnMoves(from, team, occupied, them, allowed, out);
+                    yield 0L;
+                }
+                default -> 0L;
+            };
+            addMoves(from, targets & ~own & allowed, them, out);
+        }
+
+        if (enPassantSquare != BitBoard.EMPTY) {
+            addEnPassantMoves(bits, team, enemy, king, enPassantSquare, own & fromMask, out);
+        }
+    }
+
+    /**
+     * Finds the pieces pinned to their king: the only piece standing
+     * between the king and an enemy rook, bishop or queen
+     *
+     * @return bitboard of the pinned pieces
+     */
+    private static long pinnedPieces(BitBoard bits, int king, ChessGame.TeamColor enemy, long own, long them) {
+        long queens = bits.pieces(enemy, ChessPiece.PieceType.QUEEN);
+        // Sliders that would see the king if our pieces weren't there
+        long pinners = (Attacks.rook(king, them) & (bits.pieces(enemy, ChessPiece.PieceType.ROOK) | queens))
+                | (Attacks.bishop(king, them) & (bits.pieces(enemy, ChessPiece.PieceType.BISHOP) | queens));
+        long pinned = 0L;
+        while (pinners != 0) {
+            long blockers = Attacks.between(king, Long.numberOfTrailingZeros(pinners)) & (own | them);
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+                pinned |= blockers;
+            }
+            pinners &= pinners - 1;
+        }
+        return pinned;
+    }
+
+    private static void addKingMoves(BitBoard bits, int king, ChessGame.TeamColor enemy, long checkers, long own,
+                                     long them, long occupied, MoveList out) {
+        long danger = bits.attacks(enemy);
+        // A slider giving check also covers the squares behind the king, so redo its rays without the king
+        long withoutKing = occupied & ~(1L << king);
+        long sliders = checkers & ~bits.pieces(enemy, ChessPiece.PieceType.PAWN) & ~bits.pieces(enemy, ChessPiece.PieceType.KNIGHT);
+        while (sliders != 0) {
+            int sq = Long.numberOfTrailingZeros(sliders);
+            danger |= switch (BitBoard.typeOf(bits.pieceAt(sq))) {
+                case QUEEN -> Attacks.queen(sq, withoutKing);
+                case ROOK -> Attacks.rook(sq, withoutKing);
+                case BISHOP -> Attacks.bishop(sq, withoutKing);
+                default -> 0L;
+            };
+            sliders &= sliders - 1;
+        }
+        addMoves(king, Attacks.king(king) & ~own & ~danger, them, out);
+    }
+
+    private static void addCastlingMoves(BitBoard bits, ChessGame.TeamColor team, ChessGame.TeamColor enemy, int king,
+                                         int castlingRights, long occupied, MoveList out) {
+        boolean isWhite = team == ChessGame.TeamColor.WHITE;
+        int home = isWhite ? 4 : 60;
+        if (king != home) {
+            return;
+        }
+        int kingSide = isWhite ? ChessGame.WHITE_KINGSIDE : ChessGame.BLACK_KINGSIDE;
+        int queenSide = isWhite ? ChessGame.WHITE_QUEENSIDE : ChessGame.BLACK_QUEENSIDE;
+
+        // The squares between king and rook must be empty (f,g and b,c,d), and the king can't pass through check
+        long danger = bits.attacks(enemy);
+        if ((castlingRights & kingSide) != 0 && (occupied & (0x60L << (home - 4))) == 0 &&
+                (danger & (0x60L << (home - 4))) == 0) {
+            out.add(Move.of(home, home + 2, null, Move.FLAG_CASTLE));
+        }
+        if ((castlingRights & queenSide) != 0 && (occupied & (0x0EL << (home - 4))) == 0 &&
+                (danger & (0x0CL << (home - 4))) == 0) {
+            out.add(Move.of(home, home - 2, null, Move.FLAG_CASTLE));
+        }
+    }
+
+    private static void addLegalPawnMoves(int from, ChessGame.TeamColor team, long occupied, long them, long allowed,
+                                          MoveList out) {
+        boolean isWhite = team == ChessGame.TeamColor.WHITE;
+        int forward = isWhite ? 8 : -8;
+        int startRank = isWhite ? 1 : 6;
+        int one = from + forward;
+
+        if (one >= 0 && one < 64 && (occupied & (1L << one)) == 0) {
+            if ((allowed & (1L << one)) != 0) {
+                addPawnMove(from, one, 0, out);
+            }
+            int two = one + forward;
+            if (from / 8 == startRank && (occupied & (1L << two)) == 0 && (allowed & (1L << two)) != 0) {
+                out.add(Move.of(from, two, null, Move.FLAG_DOUBLE_PUSH));
+            }
+        }
+
+        long captures = Attacks.pawn(team, from) & them & allowed;
+        while (captures != 0) {
+            addPawnMove(from, Long.numberOfTrailingZeros(captures), Move.FLAG_CAPTURE, out);
+            captures &= captures - 1;
+        }
+    }
+
+    private static void addEnPassantMoves(BitBoard bits, ChessGame.TeamColor team, ChessGame.TeamColor enemy, int king,
+                                          int target, long candidates, MoveList out) {
+        int capturedSquare = target + (team == ChessGame.TeamColor.WHITE ? -8 : 8);
+        long capturedBit = 1L << capturedSquare;
+        long capturers = Attacks.pawn(enemy, target) & bits.pieces(team, ChessPiece.PieceType.PAWN) & candidates;
+        if ((bits.pieces(enemy, ChessPiece.PieceType.PAWN) & capturedBit) == 0) {
+            return;
+        }
+        long queens = bits.pieces(enemy, ChessPiece.PieceType.QUEEN);
+        long rookSliders = bits.pieces(enemy, ChessPiece.PieceType.ROOK) | queens;
+        long bishopSliders = bits.pieces(enemy, ChessPiece.PieceType.BISHOP) | queens;
+
+        while (capturers != 0) {
+            int from = Long.numberOfTrailingZeros(capturers);
+            capturers &= capturers - 1;
+            if (king != BitBoard.EMPTY) {
+                // Two pawns leave the row at once, so look for sliders on the board as it will be
+                long after = (bits.occupied() & ~(1L << from) & ~capturedBit) | (1L << target);
+                if ((Attacks.rook(king, after) & rookSliders) != 0 || (Attacks.bishop(king, after) & bishopSliders) != 0) {
+                    continue;
+                }
+                // Any other checking piece is only dealt with if it is the captured pawn
+                long otherCheckers = bits.attackersOf(king, enemy, bits.occupied()) & ~capturedBit & ~rookSliders & ~bishopSliders;
+                if (otherCheckers != 0) {
+                    continue;
+                }
+            }
+            out.add(Move.of(from, target, null, Move.FLAG_EN_PASSANT | Move.FLAG_CAPTURE));
+        }
+    }
+
+    /**
+     * Adds a move from one square to each square in a target set
+     *
+     * @param from the start square
+     * @param targets bitboard of end squares
+     * @param enemy bitboard of enemy pieces, used to flag captures
+     * @param out the list to add moves to
+     */
+    static void addMoves(int from, long targets, long enemy, MoveList out) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            out.add(Move.of(from, to, null, (enemy & (1L << to)) != 0 ? Move.FLAG_CAPTURE : 0));
+            targets &= targets - 1;
+        }
+    }
+
+    private static void addPawnMoves(int from, ChessGame.TeamColor team, long occupied, long enemy, MoveList out) {
+        boolean isWhite = team == ChessGame.TeamColor.WHITE;
+        int forward = isWhite ? 8 : -8;
+        int startRank = isWhite ? 1 : 6;
+        int one = from + forward;
+
+        // Pushes need an empty square, and a double push needs both squares empty
+        if (one >= 0 && one < 64 && (occupied & (1L << one)) == 0) {
+            addPawnMove(from, one, 0, out);
+            int two = one + forward;
+            if (from / 8 == startRank && (occupied & (1L << two)) == 0) {
+                out.add(Move.of(from, two, null, Move.FLAG_DOUBLE_PUSH));
+            }
+        }
+
+        long captures = Attacks.pawn(team, from) & enemy;
+        while (captures != 0) {
+            addPawnMove(from, Long.numberOfTrailingZeros(captures), Move.FLAG_CAPTURE, out);
+            captures &= captures - 1;
+        }
+    }
+
+    // adds a pawn move, expanding it into every promotion when it reaches the last rank
+    static void addPawnMove(int from, int to, int flags, MoveList out) {
+        if (to < 8 || to >= 56) {
+            for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                out.add(Move.of(from, to, promotion, flags));
+            }
+        }
+        else {
+            out.add(Move.of(from, to, null, flags));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package chess;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A reusable, growable buffer of packed moves (see {@link Move}).
+ * Clearing it keeps the backing array, so one list can serve many generations.
+ */
+public class MoveList {
+
+    // No legal chess position has more than 218 moves
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+        size = 0;
+    }
+
+    /**
+     * Appends a packed move
+     *
+     * @param move the move to add
+     */
+    public void add(int move) {
+        if (size == moves.length) {
+            int[] bigger = new int[moves.length * 2];
+            System.arraycopy(moves, 0, bigger, 0, size);
+            moves = bigger;
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * @param index position in the list
+     * @return the packed move at that position
+     */
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return moves[index];
+    }
+
+    /**
+     * Replaces the move at a position
+     *
+     * @param index position in the list
+     * @param move the packed move to store
+     */
+    public void set(int index, int move) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        moves[index] = move;
+    }
+
+    /**
+     * @return the number of moves in the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the list holds no moves
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Empties the list without releasing its buffer
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drops moves from the end of the list
+     *
+     * @param newSize the number of moves to keep
+     */
+    public void truncate(int newSize) {
+        size = Math.min(size, newSize);
+    }
+
+    /**
+     * @param move a packed move, flags are ignored
+     * @return true if the list has a move with the same squares and promotion
+     */
+    public boolean contains(int move) {
+        int key = Move.key(move);
+        for (int i = 0; i < size; i++) {
+            if (Move.key(moves[i]) == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adapter for callers that work with ChessMove objects
+     *
+     * @return a set holding every move in the list as a ChessMove
+     */
+    public Collection<ChessMove> toChessMoves() {
+        Set<ChessMove> chessMoves = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            chessMoves.add(Move.toChessMove(moves[i]));
+        }
+        return chessMoves;
+    }
+}
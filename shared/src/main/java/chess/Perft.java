@@ -0,0 +1,181 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Performance test (perft): counts the leaf nodes of the legal move tree to a
+ * fixed depth. The counts for well known positions are published, so any
+ * disagreement points at a move generation bug, and the time taken gives the
+ * generator's speed in nodes per second.
+ * <p>
+ * Run with {@code java -cp shared/target/classes chess.Perft} to check every
+ * reference position, or {@code chess.Perft <depth> [fen]} for a divide of one
+ * position: the node count under each root move.
+ */
+public final class Perft {
+
+    /**
+     * A position with its known node counts, where counts[d - 1] is the count at depth d
+     */
+    public record Position(String name, String fen, long... counts) {}
+
+    public static final List<Position> REFERENCE_POSITIONS = List.of(
+            new Position("start", Fen.START,
+                    20, 400, 8_902, 197_281, 4_865_609),
+            new Position("kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48, 2_039, 97_862, 4_085_603),
+            new Position("position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14, 191, 2_812, 43_238, 674_624),
+            new Position("position 4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6, 264, 9_467, 422_333),
+            new Position("position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44, 1_486, 62_379, 2_103_487),
+            new Position("position 6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46, 2_079, 89_890, 3_894_594)
+    );
+
+    private Perft() {}
+
+    /**
+     * Counts leaf nodes with the packed move generator and make/unmake
+     *
+     * @param game the position to search; it is left unchanged
+     * @param depth the number of plies to search
+     * @return the number of move sequences of that length
+     */
+    public static long perft(ChessGame game, int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        MoveList[] lists = new MoveList[depth];
+        for (int i = 0; i < depth; i++) {
+            lists[i] = new MoveList();
+        }
+        return perft(game, depth, lists);
+    }
+
+    /**
+     * Counts leaf nodes through the public ChessMove API: validMoves for every
+     * piece of the side to move. Much slower than {@link #perft(ChessGame, int)},
+     * but checks the object path the server and client use.
+     *
+     * @param game the position to search; it is left unchanged
+     * @param depth the number of plies to search
+     * @return the number of move sequences of that length
+     */
+    public static long perftChessMoves(ChessGame game, int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        long nodes = 0;
+        for (ChessMove move : chessMoves(game)) {
+            if (depth == 1) {
+                nodes++;
+                continue;
+            }
+            game.makeMove(Move.fromChessMove(move));
+            nodes += perftChessMoves(game, depth - 1);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Splits a perft count by root move, for narrowing down which move's
+     * subtree disagrees with a reference engine
+     *
+     * @param game the position to search; it is left unchanged
+     * @param depth the number of plies to search, at least 1
+     * @return node counts keyed by root move in coordinate notation
+     */
+    public static Map<String, Long> divide(ChessGame game, int depth) {
+        MoveList moves = new MoveList();
+        game.legalMoves(moves);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            game.makeMove(move);
+            counts.put(Move.toString(move), perft(game, depth - 1));
+            game.unmakeMove();
+        }
+        return counts;
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0) {
+            int depth = Integer.parseInt(args[0]);
+            String fen = args.length > 1 ? String.join(" ", List.of(args).subList(1, args.length)) : Fen.START;
+            long total = 0;
+            for (Map.Entry<String, Long> entry : divide(Fen.load(fen), depth).entrySet()) {
+                System.out.printf("%s: %d%n", entry.getKey(), entry.getValue());
+                total += entry.getValue();
+            }
+            System.out.printf("%nNodes searched: %d%n", total);
+            return;
+        }
+
+        boolean passed = true;
+        long allNodes = 0;
+        long allNanos = 0;
+        for (Position position : REFERENCE_POSITIONS) {
+            int depth = position.counts().length;
+            ChessGame game = Fen.load(position.fen());
+            long start = System.nanoTime();
+            long nodes = perft(game, depth);
+            long nanos = System.nanoTime() - start;
+            boolean ok = nodes == position.counts()[depth - 1];
+            passed &= ok;
+            allNodes += nodes;
+            allNanos += nanos;
+            System.out.printf("%-12s depth %d %,12d nodes %8.1f ms %,12.0f nps %s%n", position.name(), depth, nodes,
+                    nanos / 1e6, nodes * 1e9 / nanos, ok ? "ok" : "FAILED, expected " + position.counts()[depth - 1]);
+        }
+        System.out.printf("%-12s         %,12d nodes %8.1f ms %,12.0f nps%n", "total", allNodes, allNanos / 1e6,
+                allNodes * 1e9 / allNanos);
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static long perft(ChessGame game, int depth, MoveList[] lists) {
+        MoveList moves = lists[depth - 1];
+        moves.clear();
+        game.legalMoves(moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            nodes += perft(game, depth - 1, lists);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Helper function. Gets every valid move of the side to move
+     * through validMoves
+     *
+     * @param game the game to get moves for
+     * @return the moves of every piece of the side to move
+     */
+    private static Collection<ChessMove> chessMoves(ChessGame game) {
+        Collection<ChessMove> moves = new ArrayList<>();
+        ChessBoard board = game.getBoard();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = new ChessPosition(row, col);
+                ChessPiece piece = board.getPiece(position);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    moves.addAll(game.validMoves(position));
+                }
+            }
+        }
+        return moves;
+    }
+}
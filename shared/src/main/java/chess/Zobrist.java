@@ -0,0 +1,102 @@
+package chess;
+
+/**
+ * Random keys for Zobrist position hashing. A position's key is the XOR of one key
+ * per piece on its square, plus keys for the side to move, the castling rights and
+ * the en passant file, so a move changes it with a handful of XORs instead of a
+ * full rehash.
+ * <p>
+ * The keys come from a fixed-seed generator, so a position has the same key in every
+ * run and keys can be stored.
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECE = new long[12][64];
+    private static final long BLACK_TO_MOVE;
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int code = 0; code < 12; code++) {
+            for (int sq = 0; sq < 64; sq++) {
+                seed += 0x9E3779B97F4A7C15L;
+                PIECE[code][sq] = mix(seed);
+            }
+        }
+        seed += 0x9E3779B97F4A7C15L;
+        BLACK_TO_MOVE = mix(seed);
+        // no rights at all hashes to nothing, so a bare board's key is just its pieces
+        for (int rights = 1; rights < 16; rights++) {
+            seed += 0x9E3779B97F4A7C15L;
+            CASTLING[rights] = mix(seed);
+        }
+        for (int file = 0; file < 8; file++) {
+            seed += 0x9E3779B97F4A7C15L;
+            EN_PASSANT_FILE[file] = mix(seed);
+        }
+    }
+
+    private Zobrist() {}
+
+    /**
+     * @param code a piece code (see {@link BitBoard#code})
+     * @param sq the square index
+     * @return the key of that piece standing on that square
+     */
+    public static long piece(int code, int sq) {
+        return PIECE[code][sq];
+    }
+
+    /**
+     * @param team the team to move
+     * @return the key for the side to move
+     */
+    public static long side(ChessGame.TeamColor team) {
+        return team == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0L;
+    }
+
+    /**
+     * @param rights a combination of the ChessGame castling flags
+     * @return the key for those castling rights
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @param sq the en passant square, or BitBoard.EMPTY
+     * @return the key for that en passant square's file
+     */
+    public static long enPassant(int sq) {
+        return sq == BitBoard.EMPTY ? 0L : EN_PASSANT_FILE[sq % 8];
+    }
+
+    /**
+     * Computes a key from scratch. Games keep theirs up to date as moves are
+     * made; this is for checking them and for positions built by hand.
+     *
+     * @param bits the pieces on the board
+     * @param toMove the team to move
+     * @param castlingRights a combination of the ChessGame castling flags
+     * @param enPassantSquare the en passant square, or BitBoard.EMPTY
+     * @return the position's key
+     */
+    public static long key(BitBoard bits, ChessGame.TeamColor toMove, int castlingRights, int enPassantSquare) {
+        long key = 0L;
+        for (int sq = 0; sq < 64; sq++) {
+            int code = bits.pieceAt(sq);
+            if (code != BitBoard.EMPTY) {
+                key ^= PIECE[code][sq];
+            }
+        }
+        return key ^ side(toMove) ^ CASTLING[castlingRights] ^ enPassant(enPassantSquare);
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,48 @@
+package model;
+
+import chess.ChessGame;
+
+/**
+ * What a game list shows about each game: everything but the board
+ *
+ * @param moveCount the number of moves made so far
+ */
+public record GameSummary(int gameID, String whiteUsername, String blackUsername, String gameName, Status status,
+                          int moveCount) {
+
+    public enum Status {
+        WAITING_FOR_PLAYERS,
+        IN_PROGRESS,
+        WHITE_WON,
+        BLACK_WON,
+        DRAW;
+
+        /**
+         * Gets the result of a game from its board
+         *
+         * @param game the game to check
+         * @return WHITE_WON, BLACK_WON or DRAW if the game is over, otherwise null
+         */
+        public static Status resultOf(ChessGame game) {
+            ChessGame.TeamColor turn = game.getTeamTurn();
+            if (game.isInCheckmate(turn)) {
+                return turn == ChessGame.TeamColor.WHITE ? BLACK_WON : WHITE_WON;
+            }
+            if (game.isInStalemate(turn)) {
+                return DRAW;
+            }
+            return null;
+        }
+
+        /**
+         * @param result the game's result, or null if it isn't over
+         * @return the result, or whether the game is still waiting for players
+         */
+        public static Status of(Status result, String whiteUsername, String blackUsername) {
+            if (result != null) {
+                return result;
+            }
+            return whiteUsername == null || blackUsername == null ? WAITING_FOR_PLAYERS : IN_PROGRESS;
+        }
+    }
+}
@@ -4,13 +4,13 @@ import java.util.ArrayList;
 
 //This class is merely a wrapper so that gson can properly parse an array into JSON
 public class Games {
-    private ArrayList<GameData> games;
+    private ArrayList<GameSummary> games;
 
-    public Games(ArrayList<GameData> games) {
+    public Games(ArrayList<GameSummary> games) {
         this.games = games;
     }
 
-    public ArrayList<GameData> getGames() {
+    public ArrayList<GameSummary> getGames() {
         return games;
     }
 }
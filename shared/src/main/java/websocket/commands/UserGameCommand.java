@@ -1,5 +1,7 @@
 package websocket.commands;
 
+import chess.ChessMove;
+
 import java.util.Objects;
 
 /**
@@ -16,10 +18,54 @@ public class UserGameCommand {
 
     private final Integer gameID;
 
+    // only sent with MAKE_MOVE
+    private final ChessMove move;
+
+    // only sent with CONNECT; asks for MOVE messages instead of a LOAD_GAME after every move
+    private final boolean moveDeltas;
+
+    // only sent with CONNECT; the sequence number of the last MOVE the client has
+    private final Integer lastSeen;
+
     public UserGameCommand(CommandType commandType, String authToken, Integer gameID) {
+        this(commandType, authToken, gameID, null);
+    }
+
+    public UserGameCommand(CommandType commandType, String authToken, Integer gameID, ChessMove move) {
+        this(commandType, authToken, gameID, move, false, null);
+    }
+
+    private UserGameCommand(CommandType commandType, String authToken, Integer gameID, ChessMove move,
+                            boolean moveDeltas, Integer lastSeen) {
         this.commandType = commandType;
         this.authToken = authToken;
         this.gameID = gameID;
+        this.move = move;
+        this.moveDeltas = moveDeltas;
+        this.lastSeen = lastSeen;
+    }
+
+    /**
+     * Asks for moves to be sent as MOVE messages, to apply to the game from the
+     * last LOAD_GAME, instead of a LOAD_GAME of the whole game after every move
+     *
+     * @return a copy of this CONNECT command that asks for MOVE messages
+     */
+    public UserGameCommand withMoveDeltas() {
+        return new UserGameCommand(commandType, authToken, gameID, move, true, lastSeen);
+    }
+
+    /**
+     * Reconnects a client that still has its copy of the game. The server sends the
+     * moves made since as MOVE messages, or a LOAD_GAME if it no longer has them all.
+     * Asks for MOVE messages from then on too.
+     *
+     * @param lastSeen the sequence number of the last move made on the client's copy,
+     *                 which is its move count
+     * @return a copy of this CONNECT command that resumes from lastSeen
+     */
+    public UserGameCommand resumingFrom(int lastSeen) {
+        return new UserGameCommand(commandType, authToken, gameID, move, true, lastSeen);
     }
 
     public enum CommandType {
@@ -41,6 +87,21 @@ public class UserGameCommand {
         return gameID;
     }
 
+    public ChessMove getMove() {
+        return move;
+    }
+
+    public boolean wantsMoveDeltas() {
+        return moveDeltas;
+    }
+
+    /**
+     * @return the sequence number the client is resuming from, or null if it wants the whole game
+     */
+    public Integer getLastSeen() {
+        return lastSeen;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -0,0 +1,19 @@
+package websocket.messages;
+
+import chess.ChessGame;
+
+/**
+ * Sends a client the whole game, to redraw its board from
+ */
+public class LoadGameMessage extends ServerMessage {
+    private final ChessGame game;
+
+    public LoadGameMessage(ChessGame game) {
+        super(ServerMessageType.LOAD_GAME);
+        this.game = game;
+    }
+
+    public ChessGame getGame() {
+        return game;
+    }
+}
@@ -0,0 +1,89 @@
+package websocket.messages;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+
+/**
+ * Tells a client about one move, for it to make on its own copy of the game.
+ * Sent instead of LOAD_GAME to clients that asked for it when they connected,
+ * and a few dozen bytes instead of the whole game.
+ */
+public class MoveMessage extends ServerMessage {
+    private final ChessMove move;
+    // the number of moves made in the game, counting this one
+    private final int seq;
+    private final boolean check;
+    private final boolean checkmate;
+    private final boolean stalemate;
+    // Zobrist key of the position after the move
+    private final long hash;
+
+    public MoveMessage(ChessMove move, int seq, boolean check, boolean checkmate, boolean stalemate, long hash) {
+        super(ServerMessageType.MOVE);
+        this.move = move;
+        this.seq = seq;
+        this.check = check;
+        this.checkmate = checkmate;
+        this.stalemate = stalemate;
+        this.hash = hash;
+    }
+
+    /**
+     * Describes the move just made in a game
+     *
+     * @param game the game with the move made
+     * @return the message for the game's last move
+     */
+    public static MoveMessage of(ChessGame game) {
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        return new MoveMessage(game.getLastMove(), game.getMoveCount(), game.isInCheck(turn),
+                game.isInCheckmate(turn), game.isInStalemate(turn), game.getZobristKey());
+    }
+
+    /**
+     * Makes the move on a client's copy of the game. A copy that is missing a move,
+     * or that doesn't reach the server's position, can't be patched; the client
+     * should connect again to get the whole game in a LOAD_GAME.
+     *
+     * @param game the client's copy, from the last LOAD_GAME plus the MOVE messages since
+     * @return true if the move was made and the copy matches the server's, false if
+     * the copy needs replacing. After a sequence gap or an illegal move the copy is unchanged.
+     */
+    public boolean applyTo(ChessGame game) {
+        if (seq != game.getMoveCount() + 1) {
+            return false;
+        }
+        try {
+            game.makeMove(move);
+        }
+        catch (InvalidMoveException e) {
+            return false;
+        }
+        return game.getZobristKey() == hash;
+    }
+
+    public ChessMove getMove() {
+        return move;
+    }
+
+    public int getSeq() {
+        return seq;
+    }
+
+    public boolean isCheck() {
+        return check;
+    }
+
+    public boolean isCheckmate() {
+        return checkmate;
+    }
+
+    public boolean isStalemate() {
+        return stalemate;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+}
@@ -0,0 +1,17 @@
+package websocket.messages;
+
+/**
+ * Tells a client about something another user did, or about the state of the game
+ */
+public class NotificationMessage extends ServerMessage {
+    private final String message;
+
+    public NotificationMessage(String message) {
+        super(ServerMessageType.NOTIFICATION);
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
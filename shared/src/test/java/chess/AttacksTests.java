@@ -0,0 +1,46 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Random;
+
+public class AttacksTests {
+
+    @Test
+    @DisplayName("Magic Lookups Match Ray Walking")
+    public void magicMatchesRays() {
+        Random random = new Random(240);
+        for (int i = 0; i < 2000; i++) {
+            long occupied = random.nextLong() & random.nextLong();
+            for (int sq = 0; sq < 64; sq++) {
+                Assertions.assertEquals(walk(sq, occupied, new int[][]{{1, 0}, {-1, 0}, {0, 1}, {0, -1}}),
+                        Attacks.rook(sq, occupied), "Rook attacks differ on square " + sq);
+                Assertions.assertEquals(walk(sq, occupied, new int[][]{{1, 1}, {1, -1}, {-1, 1}, {-1, -1}}),
+                        Attacks.bishop(sq, occupied), "Bishop attacks differ on square " + sq);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Initialization Time Is Recorded")
+    public void initTime() {
+        Assertions.assertTrue(Attacks.initNanos() > 0);
+    }
+
+    private static long walk(int sq, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] dir : directions) {
+            int row = sq / 8 + dir[0];
+            int col = sq % 8 + dir[1];
+            while (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                attacks |= 1L << (row * 8 + col);
+                if ((occupied & (1L << (row * 8 + col))) != 0) {
+                    break;
+                }
+                row += dir[0];
+                col += dir[1];
+            }
+        }
+        return attacks;
+    }
+}
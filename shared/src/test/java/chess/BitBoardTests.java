@@ -0,0 +1,76 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+public class BitBoardTests {
+
+    @Test
+    @DisplayName("Round Trip Starting Board")
+    public void roundTrip() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        BitBoard bits = new BitBoard(board);
+
+        Assertions.assertEquals(board, bits.toChessBoard());
+        Assertions.assertEquals(32, Long.bitCount(bits.occupied()));
+        Assertions.assertEquals(BitBoard.square(new ChessPosition(1, 5)), bits.kingSquare(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(BitBoard.square(new ChessPosition(8, 5)), bits.kingSquare(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Board Keeps Bitboard In Sync")
+    public void staysInSync() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        BitBoard bits = board.getBitBoard();
+
+        ChessPiece pawn = board.getPiece(new ChessPosition(2, 5));
+        board.addPiece(new ChessPosition(4, 5), pawn);
+        board.addPiece(new ChessPosition(2, 5), null);
+
+        Assertions.assertEquals(BitBoard.EMPTY, bits.pieceAt(BitBoard.square(new ChessPosition(2, 5))));
+        Assertions.assertEquals(BitBoard.code(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                bits.pieceAt(BitBoard.square(new ChessPosition(4, 5))));
+        Assertions.assertEquals(new BitBoard(board), bits);
+    }
+
+    @Test
+    @DisplayName("Attacked Squares")
+    public void attacks() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        BitBoard bits = board.getBitBoard();
+
+        // f3 is covered by the g1 knight and the e2/g2 pawns, e4 by nothing yet
+        Assertions.assertTrue(bits.isAttacked(BitBoard.square(new ChessPosition(3, 6)), ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(bits.isAttacked(BitBoard.square(new ChessPosition(4, 5)), ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(bits.isAttacked(BitBoard.square(new ChessPosition(3, 6)), ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Attack Maps Follow Board Changes")
+    public void attackMapsStayCurrent() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        BitBoard bits = board.getBitBoard();
+        bits.attacks(ChessGame.TeamColor.WHITE);
+        bits.attacks(ChessGame.TeamColor.BLACK);
+
+        // open the e-file and the f1-a6 diagonal, then move a queen out
+        board.addPiece(new ChessPosition(2, 5), null);
+        board.addPiece(new ChessPosition(7, 5), null);
+        board.addPiece(new ChessPosition(5, 8), board.getPiece(new ChessPosition(1, 4)));
+        board.addPiece(new ChessPosition(1, 4), null);
+
+        for (ChessGame.TeamColor team : ChessGame.TeamColor.values()) {
+            long expected = 0L;
+            for (int sq = 0; sq < 64; sq++) {
+                if (bits.attackersOf(sq, team, bits.occupied()) != 0) {
+                    expected |= 1L << sq;
+                }
+            }
+            Assertions.assertEquals(expected, bits.attacks(team), team + " attack map");
+        }
+    }
+}
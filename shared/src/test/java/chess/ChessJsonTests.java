@@ -0,0 +1,90 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.*;
+
+public class ChessJsonTests {
+
+    @Test
+    @DisplayName("Compact Game Round Trip")
+    public void gameRoundTrip() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+
+        String json = ChessJson.GSON.toJson(game);
+        Assertions.assertEquals("{\"fen\":\"rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 1 2\","
+                + "\"moves\":[\"e2e4\",\"g8f6\"]}", json);
+
+        ChessGame read = ChessJson.GSON.fromJson(json, ChessGame.class);
+        Assertions.assertEquals(game.toFen(), read.toFen());
+        Assertions.assertEquals(game.getMoveHistory(), read.getMoveHistory());
+        Assertions.assertEquals(game.getLastMove(), read.getLastMove());
+        Assertions.assertEquals(game.getZobristKey(), read.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Reflective JSON Is Still Read")
+    public void reflectiveForm() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null));
+        Gson plain = new Gson();
+
+        ChessGame read = ChessJson.GSON.fromJson(plain.toJson(game), ChessGame.class);
+        Assertions.assertEquals(game.toFen(), read.toFen());
+
+        // Clients that send moves with a plain Gson use this form
+        ChessMove promotion = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.KNIGHT);
+        Assertions.assertEquals(promotion, ChessJson.GSON.fromJson(plain.toJson(promotion), ChessMove.class));
+        Assertions.assertEquals("\"a7a8n\"", ChessJson.GSON.toJson(promotion));
+        Assertions.assertEquals(promotion, ChessJson.GSON.fromJson("\"a7a8n\"", ChessMove.class));
+    }
+
+    @Test
+    @DisplayName("Board, Piece And Position")
+    public void smallTypes() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        Assertions.assertEquals("\"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR\"", ChessJson.GSON.toJson(board));
+        Assertions.assertEquals(board, ChessJson.GSON.fromJson(ChessJson.GSON.toJson(board), ChessBoard.class));
+        Assertions.assertEquals(board, ChessJson.GSON.fromJson(new Gson().toJson(board), ChessBoard.class));
+
+        ChessPiece knight = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        Assertions.assertEquals("\"n\"", ChessJson.GSON.toJson(knight));
+        Assertions.assertEquals(knight, ChessJson.GSON.fromJson("\"n\"", ChessPiece.class));
+
+        ChessPosition position = new ChessPosition(4, 5);
+        Assertions.assertEquals("\"e4\"", ChessJson.GSON.toJson(position));
+        Assertions.assertEquals(position, ChessJson.GSON.fromJson("\"e4\"", ChessPosition.class));
+        Assertions.assertEquals(position, ChessJson.GSON.fromJson("{\"row\":4,\"col\":5}", ChessPosition.class));
+    }
+
+    @Test
+    @DisplayName("Moved Flags Survive A Board Round Trip")
+    public void movedFlags() throws InvalidMoveException {
+        // the white king steps out and back, giving up castling
+        ChessGame game = new ChessGame();
+        int[][] moves = {{2, 5, 4, 5}, {7, 4, 5, 4}, {1, 5, 2, 5}, {5, 4, 4, 5}, {2, 5, 1, 5}, {7, 7, 5, 7}};
+        for (int[] move : moves) {
+            game.makeMove(new ChessMove(new ChessPosition(move[0], move[1]), new ChessPosition(move[2], move[3]), null));
+        }
+        ChessBoard board = game.getBoard();
+
+        ChessBoard read = ChessJson.GSON.fromJson(ChessJson.GSON.toJson(board), ChessBoard.class);
+        Assertions.assertEquals(board, read);
+        Assertions.assertTrue(read.getPiece(new ChessPosition(1, 5)).hasMoved());
+        Assertions.assertFalse(read.getPiece(new ChessPosition(1, 8)).hasMoved());
+        // black's last move was a double step, open to en passant
+        Assertions.assertTrue(read.getPiece(new ChessPosition(5, 7)).justMovedTwo());
+
+        ChessPiece king = board.getPiece(new ChessPosition(1, 5));
+        Assertions.assertTrue(ChessJson.GSON.fromJson(ChessJson.GSON.toJson(king), ChessPiece.class).hasMoved());
+    }
+
+    @Test
+    @DisplayName("Smaller Than Reflective JSON")
+    public void size() {
+        ChessGame game = new ChessGame();
+        Assertions.assertTrue(ChessJson.GSON.toJson(game).length() * 10 < new Gson().toJson(game).length());
+    }
+}
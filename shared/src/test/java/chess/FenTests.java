@@ -0,0 +1,65 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+public class FenTests {
+
+    @Test
+    @DisplayName("Reference Positions Round Trip")
+    public void roundTrip() {
+        for (Perft.Position position : Perft.REFERENCE_POSITIONS) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            Assertions.assertEquals(position.fen(), game.toFen());
+            Assertions.assertEquals(game.getZobristKey(), ChessGame.fromFen(game.toFen()).getZobristKey());
+        }
+    }
+
+    @Test
+    @DisplayName("Played Moves Show Up In FEN")
+    public void playedMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(Fen.START, game.toFen());
+
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", game.toFen());
+
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(2, 5), null));
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPPKPPP/RNBQ1BNR b kq - 2 2", game.toFen());
+
+        game.unmakeMove();
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 1 2", game.toFen());
+    }
+
+    @Test
+    @DisplayName("Loaded State Drives Move Generation")
+    public void loadedState() {
+        // Black may capture en passant on d3, white has given up kingside castling
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/2pP4/8/8/R3K2R b Qkq d3 0 20");
+        Assertions.assertTrue(game.validMoves(new ChessPosition(4, 3))
+                .contains(new ChessMove(new ChessPosition(4, 3), new ChessPosition(3, 4), null)));
+        Assertions.assertEquals(ChessGame.WHITE_QUEENSIDE | ChessGame.BLACK_KINGSIDE | ChessGame.BLACK_QUEENSIDE,
+                game.getCastlingRights());
+        Assertions.assertEquals(20, game.getFullmoveNumber());
+
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        Assertions.assertFalse(game.validMoves(new ChessPosition(1, 5))
+                .contains(new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 7), null)));
+        Assertions.assertTrue(game.validMoves(new ChessPosition(1, 5))
+                .contains(new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 3), null)));
+    }
+
+    @Test
+    @DisplayName("Board Placement")
+    public void boardPlacement() {
+        ChessBoard start = new ChessBoard();
+        start.resetBoard();
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR", start.toFen());
+        Assertions.assertEquals(start, ChessBoard.fromFen(start.toFen()));
+        Assertions.assertEquals(start, ChessBoard.fromFen(Fen.START));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessBoard.fromFen("rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 x - - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 w K - 0 1"));
+    }
+}
@@ -0,0 +1,62 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+
+public class GameCodecTests {
+
+    @Test
+    @DisplayName("Round Trip Keeps Position And History")
+    public void roundTrip() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        game.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 3), new ChessPosition(5, 3), null));
+
+        ChessGame decoded = GameCodec.decode(GameCodec.encode(game));
+        Assertions.assertEquals(game.toFen(), decoded.toFen());
+        Assertions.assertEquals(game.getZobristKey(), decoded.getZobristKey());
+        Assertions.assertEquals(game.getMoveHistory(), decoded.getMoveHistory());
+
+        // The en passant capture on c6 survives the trip
+        Assertions.assertTrue(decoded.validMoves(new ChessPosition(5, 4))
+                .contains(new ChessMove(new ChessPosition(5, 4), new ChessPosition(6, 3), null)));
+
+        // History keeps growing after decoding
+        decoded.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        Assertions.assertEquals(5, GameCodec.decode(GameCodec.encode(decoded)).getMoveHistory().size());
+    }
+
+    @Test
+    @DisplayName("Reference Positions Round Trip")
+    public void referencePositions() {
+        for (Perft.Position position : Perft.REFERENCE_POSITIONS) {
+            ChessGame decoded = GameCodec.decode(GameCodec.encode(Fen.load(position.fen())));
+            Assertions.assertEquals(position.fen(), decoded.toFen());
+            Assertions.assertEquals(position.counts()[1], Perft.perft(decoded, 2), position.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Smaller Than JSON")
+    public void size() {
+        ChessGame game = new ChessGame();
+        byte[] encoded = GameCodec.encode(game);
+        Assertions.assertEquals(31, encoded.length);
+        Assertions.assertTrue(encoded.length * 20 < new Gson().toJson(game).length());
+    }
+
+    @Test
+    @DisplayName("Corrupt Data Is Rejected")
+    public void corrupt() {
+        byte[] encoded = GameCodec.encode(new ChessGame());
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 3);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(truncated));
+
+        encoded[0] = 99;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(encoded));
+    }
+}
@@ -0,0 +1,71 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+public class MakeUnmakeTests {
+
+    private static int move(String from, String to) {
+        return Move.of(square(from), square(to));
+    }
+
+    private static int square(String name) {
+        return (name.charAt(1) - '1') * 8 + (name.charAt(0) - 'a');
+    }
+
+    @Test
+    @DisplayName("Unmake Restores Special Moves")
+    public void unmakeRestores() {
+        ChessGame game = new ChessGame();
+        ChessBoard original = new ChessBoard();
+        original.resetBoard();
+
+        // Reach a position with castling, en passant and a promotion in one line
+        int[] line = {
+                move("e2", "e4"), move("a7", "a5"), move("e4", "e5"), move("d7", "d5"),
+                move("e5", "d6"), move("a5", "a4"), move("g1", "f3"), move("a4", "a3"),
+                move("f1", "e2"), move("a3", "b2"), move("e1", "g1"),
+                Move.of(square("b2"), square("a1"), ChessPiece.PieceType.QUEEN, 0)
+        };
+        for (int move : line) {
+            game.makeMove(move);
+        }
+        Assertions.assertEquals(line.length, game.getUndoDepth());
+        Assertions.assertEquals(ChessPiece.PieceType.QUEEN, game.getBoard().getPiece(new ChessPosition(1, 1)).getPieceType());
+        Assertions.assertNull(game.getBoard().getPiece(new ChessPosition(5, 4)), "En passant didn't remove the pawn");
+        Assertions.assertEquals(ChessPiece.PieceType.ROOK, game.getBoard().getPiece(new ChessPosition(1, 6)).getPieceType());
+
+        for (int i = 0; i < line.length; i++) {
+            game.unmakeMove();
+        }
+        Assertions.assertEquals(original, game.getBoard());
+        Assertions.assertEquals(new BitBoard(original), game.getBoard().getBitBoard());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertEquals(ChessGame.WHITE_KINGSIDE | ChessGame.WHITE_QUEENSIDE |
+                ChessGame.BLACK_KINGSIDE | ChessGame.BLACK_QUEENSIDE, game.getCastlingRights());
+        Assertions.assertFalse(game.getBoard().getPiece(new ChessPosition(1, 5)).hasMoved());
+        Assertions.assertThrows(IllegalStateException.class, game::unmakeMove);
+    }
+
+    @Test
+    @DisplayName("Bookkeeping Follows Moves")
+    public void bookkeeping() {
+        ChessGame game = new ChessGame();
+
+        game.makeMove(move("g1", "f3"));
+        Assertions.assertEquals(1, game.getHalfmoveClock());
+        game.makeMove(move("e7", "e5"));
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertEquals(square("e6"), game.getEnPassantSquare());
+
+        game.makeMove(move("h1", "g1"));
+        Assertions.assertEquals(ChessGame.WHITE_QUEENSIDE | ChessGame.BLACK_KINGSIDE | ChessGame.BLACK_QUEENSIDE,
+                game.getCastlingRights());
+        Assertions.assertEquals(BitBoard.EMPTY, game.getEnPassantSquare());
+
+        game.unmakeMove();
+        Assertions.assertEquals(square("e6"), game.getEnPassantSquare());
+        Assertions.assertEquals(ChessGame.WHITE_KINGSIDE | ChessGame.WHITE_QUEENSIDE |
+                ChessGame.BLACK_KINGSIDE | ChessGame.BLACK_QUEENSIDE, game.getCastlingRights());
+    }
+}
@@ -0,0 +1,79 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+public class MoveGeneratorTests {
+
+    @Test
+    @DisplayName("Starting Position Moves")
+    public void startingMoves() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        MoveList moves = new MoveList();
+
+        MoveGenerator.generate(board.getBitBoard(), ChessGame.TeamColor.WHITE, moves);
+        Assertions.assertEquals(20, moves.size());
+
+        moves.clear();
+        MoveGenerator.generate(board.getBitBoard(), ChessGame.TeamColor.BLACK, moves);
+        Assertions.assertEquals(20, moves.size());
+    }
+
+    @Test
+    @DisplayName("Matches Piece Calculators")
+    public void matchesCalculators() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        MoveList moves = new MoveList();
+
+        for (int sq = 0; sq < 64; sq++) {
+            ChessPosition position = BitBoard.position(sq);
+            ChessPiece piece = board.getPiece(position);
+            if (piece != null) {
+                moves.clear();
+                MoveGenerator.generate(board.getBitBoard(), sq, moves);
+                Assertions.assertEquals(piece.pieceMoves(board, position), moves.toChessMoves(),
+                        "Generated moves differ for " + piece + " at " + position);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Packed Move Round Trip")
+    public void packedRoundTrip() {
+        ChessMove promotion = new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 1), ChessPiece.PieceType.KNIGHT);
+        int packed = Move.fromChessMove(promotion);
+
+        Assertions.assertEquals(promotion, Move.toChessMove(packed));
+        Assertions.assertEquals("b7a8n", Move.toString(packed));
+        Assertions.assertEquals(Move.key(packed), Move.key(packed | Move.FLAG_CAPTURE));
+    }
+
+    @Test
+    @DisplayName("Legal Moves Respect Pins And Checks")
+    public void pinsAndChecks() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(2, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(2, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        board.addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        MoveList moves = new MoveList();
+
+        // The rook is pinned to the e-file and the knight is free
+        MoveGenerator.generateLegal(board.getBitBoard(), ChessGame.TeamColor.WHITE, 0, BitBoard.EMPTY,
+                1L << BitBoard.square(new ChessPosition(2, 5)), moves);
+        Assertions.assertEquals(6, moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            Assertions.assertEquals(4, Move.to(moves.get(i)) % 8, "Pinned rook left the e-file");
+        }
+
+        // Once the rook is gone the king is in check and only blocks, captures or king moves are legal
+        board.addPiece(new ChessPosition(2, 5), null);
+        moves.clear();
+        MoveGenerator.generateLegal(board.getBitBoard(), ChessGame.TeamColor.WHITE, 0, BitBoard.EMPTY, -1L, moves);
+        Assertions.assertTrue(moves.contains(Move.of(BitBoard.square(new ChessPosition(2, 4)), BitBoard.square(new ChessPosition(4, 5)))));
+        Assertions.assertFalse(moves.contains(Move.of(BitBoard.square(new ChessPosition(2, 4)), BitBoard.square(new ChessPosition(3, 2)))));
+        Assertions.assertFalse(moves.contains(Move.of(BitBoard.square(new ChessPosition(1, 5)), BitBoard.square(new ChessPosition(2, 5)))));
+    }
+}
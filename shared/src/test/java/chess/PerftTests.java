@@ -0,0 +1,53 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Map;
+
+public class PerftTests {
+
+    // Deep enough to reach castling, en passant, promotions and discovered checks in every position
+    private static final int MAX_NODES = 200_000;
+
+    @Test
+    @DisplayName("Reference Positions")
+    public void referencePositions() {
+        for (Perft.Position position : Perft.REFERENCE_POSITIONS) {
+            ChessGame game = Fen.load(position.fen());
+            long key = game.getZobristKey();
+            for (int depth = 1; depth <= position.counts().length && position.counts()[depth - 1] <= MAX_NODES; depth++) {
+                Assertions.assertEquals(position.counts()[depth - 1], Perft.perft(game, depth),
+                        position.name() + " at depth " + depth);
+            }
+            Assertions.assertEquals(key, game.getZobristKey(), position.name() + " wasn't restored");
+        }
+    }
+
+    @Test
+    @DisplayName("ChessMove API Agrees")
+    public void chessMoveApi() {
+        for (Perft.Position position : Perft.REFERENCE_POSITIONS) {
+            ChessGame game = Fen.load(position.fen());
+            Assertions.assertEquals(position.counts()[1], Perft.perftChessMoves(game, 2), position.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Divide Sums To Perft")
+    public void divide() {
+        ChessGame game = Fen.load(Perft.REFERENCE_POSITIONS.get(1).fen());
+        Map<String, Long> counts = Perft.divide(game, 3);
+        Assertions.assertEquals(48, counts.size());
+        Assertions.assertEquals(97_862L, counts.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertTrue(counts.containsKey("e1g1"), "Castling is missing from the root moves");
+    }
+
+    @Test
+    @DisplayName("Load Start Position")
+    public void loadStart() {
+        ChessGame game = Fen.load(Fen.START);
+        Assertions.assertEquals(new ChessGame().getBoard(), game.getBoard());
+        Assertions.assertEquals(new ChessGame().getZobristKey(), game.getZobristKey());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.load("8/8/8 w - -"));
+    }
+}
@@ -0,0 +1,71 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+public class ZobristTests {
+
+    private static int move(String from, String to) {
+        return Move.of(square(from), square(to));
+    }
+
+    private static int square(String name) {
+        return (name.charAt(1) - '1') * 8 + (name.charAt(0) - 'a');
+    }
+
+    private static long fromScratch(ChessGame game) {
+        return Zobrist.key(new BitBoard(game.getBoard()), game.getTeamTurn(), game.getCastlingRights(),
+                game.getEnPassantSquare());
+    }
+
+    @Test
+    @DisplayName("Incremental Key Matches Full Hash")
+    public void incrementalMatches() {
+        ChessGame game = new ChessGame();
+        long start = game.getZobristKey();
+        Assertions.assertEquals(fromScratch(game), start);
+
+        // Castling, en passant and a promotion all change the key outside a plain move
+        int[] line = {
+                move("e2", "e4"), move("a7", "a5"), move("e4", "e5"), move("d7", "d5"),
+                move("e5", "d6"), move("a5", "a4"), move("g1", "f3"), move("a4", "a3"),
+                move("f1", "e2"), move("a3", "b2"), move("e1", "g1"),
+                Move.of(square("b2"), square("a1"), ChessPiece.PieceType.QUEEN, 0)
+        };
+        long[] keys = new long[line.length];
+        for (int i = 0; i < line.length; i++) {
+            game.makeMove(line[i]);
+            keys[i] = game.getZobristKey();
+            Assertions.assertEquals(fromScratch(game), keys[i], "Key drifted after " + Move.toString(line[i]));
+        }
+        for (int i = line.length - 1; i > 0; i--) {
+            game.unmakeMove();
+            Assertions.assertEquals(keys[i - 1], game.getZobristKey());
+        }
+        game.unmakeMove();
+        Assertions.assertEquals(start, game.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Transpositions Share A Key")
+    public void transpositions() {
+        ChessGame first = new ChessGame();
+        for (int move : new int[]{move("g1", "f3"), move("g8", "f6"), move("b1", "c3"), move("b8", "c6")}) {
+            first.makeMove(move);
+        }
+        ChessGame second = new ChessGame();
+        for (int move : new int[]{move("b1", "c3"), move("b8", "c6"), move("g1", "f3"), move("g8", "f6")}) {
+            second.makeMove(move);
+        }
+        Assertions.assertEquals(first.getZobristKey(), second.getZobristKey());
+
+        // Same pieces, but the side to move differs
+        ChessGame third = new ChessGame();
+        third.makeMove(move("g1", "f3"));
+        third.makeMove(move("g8", "f6"));
+        third.makeMove(move("f3", "g1"));
+        Assertions.assertNotEquals(new ChessGame().getZobristKey(), third.getZobristKey());
+        third.makeMove(move("f6", "g8"));
+        Assertions.assertEquals(new ChessGame().getZobristKey(), third.getZobristKey());
+        Assertions.assertEquals(new ChessGame().getBoard().hashCode(), third.getBoard().hashCode());
+    }
+}
@@ -0,0 +1,54 @@
+package websocket.messages;
+
+import chess.ChessGame;
+import chess.ChessJson;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.*;
+
+public class MoveMessageTests {
+
+    private static ChessMove move(String from, String to) {
+        return new ChessMove(new ChessPosition(from.charAt(1) - '0', from.charAt(0) - 'a' + 1),
+                new ChessPosition(to.charAt(1) - '0', to.charAt(0) - 'a' + 1), null);
+    }
+
+    @Test
+    @DisplayName("Deltas Rebuild The Server's Game")
+    public void apply() throws InvalidMoveException {
+        ChessGame server = new ChessGame();
+        ChessGame client = new ChessGame();
+        // fool's mate
+        for (ChessMove move : new ChessMove[]{move("f2", "f3"), move("e7", "e5"), move("g2", "g4"), move("d8", "h4")}) {
+            server.makeMove(move);
+            String json = ChessJson.GSON.toJson(MoveMessage.of(server));
+            Assertions.assertTrue(json.length() < 150, json);
+
+            MoveMessage message = ChessJson.GSON.fromJson(json, MoveMessage.class);
+            Assertions.assertEquals(ServerMessage.ServerMessageType.MOVE, message.getServerMessageType());
+            Assertions.assertTrue(message.applyTo(client));
+        }
+        Assertions.assertEquals(server.toFen(), client.toFen());
+        Assertions.assertEquals(4, client.getMoveCount());
+        MoveMessage mate = MoveMessage.of(server);
+        Assertions.assertTrue(mate.isCheck());
+        Assertions.assertTrue(mate.isCheckmate());
+    }
+
+    @Test
+    @DisplayName("Gap Or Mismatch Needs A Snapshot")
+    public void gap() throws InvalidMoveException {
+        ChessGame server = new ChessGame();
+        server.makeMove(move("e2", "e4"));
+        server.makeMove(move("e7", "e5"));
+        ChessGame client = new ChessGame();
+
+        // the client missed move 1
+        Assertions.assertFalse(MoveMessage.of(server).applyTo(client));
+        Assertions.assertEquals(0, client.getMoveCount());
+
+        MoveMessage wrongHash = new MoveMessage(move("e2", "e4"), 1, false, false, false, 42);
+        Assertions.assertFalse(wrongHash.applyTo(client));
+    }
+}